@@ -0,0 +1,101 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joaoac.cwm.enums.CostBasisMethod;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.service.costbasis.CostBasisLedger;
+
+/**
+ * Motor de custo sobre uma carteira sintética de 1M de transações:
+ * reprocessamento completo e aplicação incremental de uma nova transação.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CostBasisBenchmark {
+
+    private static final String[] CRYPTOCURRENCIES = { "BTC", "ETH", "SOL", "ADA", "DOT" };
+
+    @Param({ "FIFO", "LIFO", "AVERAGE_COST" })
+    private CostBasisMethod method;
+
+    @Param({ "1000000" })
+    private int historySize;
+
+    private String[] cryptocurrencies;
+    private TransactionType[] types;
+    private BigDecimal[] quantities;
+    private BigDecimal[] totalValues;
+    private LocalDateTime[] dates;
+
+    private CostBasisLedger ledger;
+    private int appended;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cryptocurrencies = new String[historySize];
+        types = new TransactionType[historySize];
+        quantities = new BigDecimal[historySize];
+        totalValues = new BigDecimal[historySize];
+        dates = new LocalDateTime[historySize];
+
+        // A cada quatro operações de um ativo, três compras e uma venda menor que o saldo
+        LocalDateTime start = LocalDateTime.of(2015, 1, 1, 0, 0);
+        for (int i = 0; i < historySize; i++) {
+            boolean sell = (i / CRYPTOCURRENCIES.length) % 4 == 3;
+            cryptocurrencies[i] = CRYPTOCURRENCIES[i % CRYPTOCURRENCIES.length];
+            types[i] = sell ? TransactionType.SELL : TransactionType.BUY;
+            quantities[i] = sell ? new BigDecimal("0.02") : new BigDecimal("0.01");
+            totalValues[i] = quantities[i].multiply(BigDecimal.valueOf(100 + i % 50));
+            dates[i] = start.plusMinutes(i);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpLedger() {
+        ledger = replay();
+        appended = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public CostBasisLedger fullReplay() {
+        return replay();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public CostBasisLedger appendTransaction() {
+        int i = appended++ % historySize;
+        ledger.apply(cryptocurrencies[i], types[i], quantities[i], totalValues[i],
+                dates[historySize - 1].plusMinutes(appended));
+        return ledger;
+    }
+
+    private CostBasisLedger replay() {
+        CostBasisLedger replayed = new CostBasisLedger(method);
+        for (int i = 0; i < historySize; i++) {
+            replayed.apply(cryptocurrencies[i], types[i], quantities[i], totalValues[i], dates[i]);
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,117 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.LedgerEvent;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.service.ledger.LedgerState;
+
+/**
+ * Replay do ledger de uma carteira com 10M de eventos: reconstrução desde o
+ * início contra último snapshot mais os eventos seguintes (no máximo o
+ * intervalo de snapshot). Os eventos se repetem a partir de um conjunto fixo,
+ * renumerados a cada aplicação, para não manter 10M de objetos no heap.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class LedgerReplayBenchmark {
+
+    private static final String[] CRYPTOCURRENCIES = { "BTC", "ETH", "SOL", "ADA", "DOT" };
+
+    // Potência de dois: o índice no conjunto é uma máscara
+    private static final int POOL_SIZE = 4096;
+
+    @Param({ "10000000" })
+    private long eventCount;
+
+    @Param({ "1000" })
+    private int snapshotInterval;
+
+    private LedgerEvent[] pool;
+    private long snapshotSequence;
+    private Map<String, BigDecimal> snapshotQuantities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new LedgerEvent[POOL_SIZE];
+        LocalDateTime start = LocalDateTime.of(2015, 1, 1, 0, 0);
+
+        // A cada vinte eventos: dezesseis criações (uma venda a cada quatro), três alterações e uma remoção
+        for (int i = 0; i < POOL_SIZE; i++) {
+            Transaction current = transaction(i, start.plusMinutes(i));
+            pool[i] = switch (i % 20) {
+                case 16, 17, 18 -> LedgerEvent.amended(transaction(i + 1, start.plusMinutes(i)), current);
+                case 19 -> LedgerEvent.voided(current);
+                default -> LedgerEvent.created(current);
+            };
+        }
+
+        // Snapshot no último múltiplo do intervalo: o replay a partir dele lê só a cauda
+        snapshotSequence = (eventCount - 1) / snapshotInterval * snapshotInterval;
+        LedgerState state = new LedgerState();
+        for (long sequence = 1; sequence <= snapshotSequence; sequence++) {
+            apply(state, sequence);
+        }
+        snapshotQuantities = state.getQuantities();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public LedgerState fullReplay() {
+        LedgerState state = new LedgerState();
+        for (long sequence = 1; sequence <= eventCount; sequence++) {
+            apply(state, sequence);
+        }
+        return state;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public LedgerState snapshotPlusTail() {
+        LedgerState state = new LedgerState(snapshotSequence, snapshotQuantities);
+        for (long sequence = snapshotSequence + 1; sequence <= eventCount; sequence++) {
+            apply(state, sequence);
+        }
+        return state;
+    }
+
+    private void apply(LedgerState state, long sequence) {
+        LedgerEvent event = pool[(int) (sequence - 1) & (POOL_SIZE - 1)];
+        event.setSequence(sequence);
+        state.apply(event);
+    }
+
+    private static Transaction transaction(int i, LocalDateTime date) {
+        Transaction transaction = new Transaction();
+        transaction.setId((long) i);
+        transaction.setWalletId(1L);
+        transaction.setCryptocurrency(CRYPTOCURRENCIES[i % CRYPTOCURRENCIES.length]);
+        transaction.setTransactionType(i % 4 == 3 ? TransactionType.SELL : TransactionType.BUY);
+        transaction.setQuantity(new BigDecimal("0.01").add(BigDecimal.valueOf(i % 7, 2)));
+        transaction.setPricePerUnit(BigDecimal.valueOf(100 + i % 50));
+        transaction.calculateTotalValue();
+        transaction.setTransactionDate(date);
+        return transaction;
+    }
+}
@@ -0,0 +1,134 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Asset;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.service.AssetRegistry;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.TransactionValidationException;
+
+/**
+ * Caminhos sem banco: validação, cálculo do valor total e serialização JSON.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+
+    private TransactionService transactionService;
+    private ObjectMapper objectMapper;
+    private Transaction transaction;
+    private Transaction invalidTransaction;
+    private TransactionResponse response;
+
+    @Setup
+    public void setUp() {
+        // validateTransaction só usa o registro de ativos, carregado aqui sem banco
+        List<Asset> assets = new ArrayList<>();
+        String[] symbols = { "BTC", "ETH", "BNB", "ADA", "XRP", "SOL", "DOT", "DOGE", "AVAX", "MATIC",
+                "LTC", "BCH", "LINK", "UNI", "ATOM", "XLM", "VET", "FIL", "TRX", "ETC" };
+        for (short id = 1; id <= symbols.length; id++) {
+            Asset asset = new Asset(symbols[id - 1], symbols[id - 1]);
+            asset.setId(id);
+            assets.add(asset);
+        }
+        AssetRegistry assetRegistry = new AssetRegistry();
+        assetRegistry.replace(assets);
+        transactionService = new TransactionService();
+        ReflectionTestUtils.setField(transactionService, "assetRegistry", assetRegistry);
+
+        // Mesma configuração de datas do ObjectMapper do Spring Boot
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setWalletId(7L);
+        transaction.setCryptocurrency("eth");
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(new BigDecimal("1.25"));
+        transaction.setPricePerUnit(new BigDecimal("3200.50"));
+        transaction.setTransactionDate(LocalDateTime.of(2024, 3, 15, 10, 30));
+        transaction.setNotes("Compra recorrente");
+        transaction.calculateTotalValue();
+
+        response = TransactionResponse.from(transaction);
+
+        // Viola todas as regras verificadas, exceto a data
+        invalidTransaction = new Transaction();
+        invalidTransaction.setCryptocurrency("XYZ");
+        invalidTransaction.setQuantity(BigDecimal.ZERO);
+        invalidTransaction.setPricePerUnit(BigDecimal.ZERO.negate());
+        invalidTransaction.setTransactionDate(LocalDateTime.of(2024, 3, 15, 10, 30));
+    }
+
+    @Benchmark
+    public Transaction validateTransaction() {
+        // Símbolo em minúsculas a cada chamada, como chega da API
+        transaction.setCryptocurrency("eth");
+        transactionService.validateTransaction(transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    public Object validateInvalidTransaction() {
+        try {
+            transactionService.validateTransaction(invalidTransaction);
+            return invalidTransaction;
+        } catch (TransactionValidationException e) {
+            return e.getErrors();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalValue() {
+        transaction.calculateTotalValue();
+        return transaction.getTotalValue();
+    }
+
+    @Benchmark
+    public byte[] serializeTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void deserializeTransaction(Blackhole blackhole) throws JsonProcessingException {
+        blackhole.consume(objectMapper.readValue(
+                "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"SELL\",\"quantity\":0.5,"
+                        + "\"pricePerUnit\":65000,\"transactionDate\":\"2024-03-15T10:30:00\"}",
+                Transaction.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joaoac.cwm.dto.TransactionCursor;
+import com.joaoac.cwm.dto.TransactionPage;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.TransactionFilter;
+import com.joaoac.cwm.service.ImportRow;
+import com.joaoac.cwm.service.TransactionImportService;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Página de GET /api/wallets/{walletId}/transactions, da consulta ao JSON, antes
+ * e depois das projeções em DTO. {@code entityPage} reproduz o caminho antigo:
+ * entidades Transaction gerenciadas, convertidas para TransactionResponse.
+ * {@code projectionPage} é o caminho atual do TransactionService.
+ * <p>
+ * SampleTime reporta os percentis (p0.99) e o perfilador gc do pom reporta a
+ * alocação por chamada (gc.alloc.rate.norm):
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.include=TransactionListingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionListingBenchmark {
+
+    private static final String[] CRYPTOCURRENCIES = { "BTC", "ETH", "SOL", "ADA", "DOT" };
+    private static final int HISTORY_SIZE = 10000;
+
+    @Param({ "50", "500" })
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private EntityManagerFactory entityManagerFactory;
+    private ObjectMapper objectMapper;
+    private Long walletId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(com.joaoac.cwm.Application.class)
+                .profiles("dev")
+                .run("--spring.main.web-application-type=none", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        // Mesmo ObjectMapper usado pelos controllers
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        Wallet wallet = new Wallet();
+        wallet.setName("benchmark");
+        walletId = context.getBean(WalletService.class).save(wallet).getId();
+
+        List<ImportRow> rows = new ArrayList<>(HISTORY_SIZE);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            Transaction buy = new Transaction();
+            buy.setCryptocurrency(CRYPTOCURRENCIES[i % CRYPTOCURRENCIES.length]);
+            buy.setTransactionType(TransactionType.BUY);
+            buy.setQuantity(new BigDecimal("0.01"));
+            buy.setPricePerUnit(new BigDecimal("100.00"));
+            buy.setTransactionDate(start.plusMinutes(i));
+            buy.setNotes("Compra recorrente");
+            rows.add(ImportRow.parsed(i + 1, buy));
+        }
+        context.getBean(TransactionImportService.class).importTransactions(walletId, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        // Uma sessão por requisição, como o EntityManager compartilhado fora de transação
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            List<Transaction> rows = entityManager.createQuery(
+                            "SELECT t FROM transactions t WHERE t.walletId = :walletId " +
+                            "ORDER BY t.transactionDate DESC, t.id DESC", Transaction.class)
+                    .setParameter("walletId", walletId)
+                    .setMaxResults(pageSize + 1)
+                    .getResultList();
+            boolean hasNext = rows.size() > pageSize;
+            List<Transaction> content = hasNext ? rows.subList(0, pageSize) : rows;
+            List<TransactionResponse> responses = content.stream().map(TransactionResponse::from).toList();
+            String next = hasNext ? TransactionCursor.of(responses.get(responses.size() - 1)).encode() : null;
+            return objectMapper.writeValueAsBytes(new TransactionPage(responses, pageSize, next));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] projectionPage() throws JsonProcessingException {
+        TransactionPage page = transactionService.findPage(TransactionFilter.byWallet(walletId), null, pageSize, "desc");
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,124 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.joaoac.cwm.dto.TransactionStats;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.ImportRow;
+import com.joaoac.cwm.service.TransactionImportService;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletCache;
+import com.joaoac.cwm.service.WalletService;
+
+/**
+ * GET /api/wallets/{walletId}/transaction-stats antes e depois da consulta
+ * agregada. {@code streamPasses} reproduz o caminho antigo do controller: todas
+ * as transações carregadas e três passadas de stream. {@code groupedAggregate}
+ * é o caminho atual (sumByTransactionType), com o cache descartado a cada chamada:
+ * mvn -Pbenchmarks test-compile exec:exec -Djmh.include=TransactionStatsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// O caminho antigo materializa o histórico inteiro
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TransactionStatsBenchmark {
+
+    private static final String[] CRYPTOCURRENCIES = { "BTC", "ETH", "SOL", "ADA", "DOT" };
+
+    @Param({ "1000", "100000", "1000000" })
+    private int historySize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private WalletCache walletCache;
+    private Long walletId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(com.joaoac.cwm.Application.class)
+                .profiles("dev")
+                .run("--spring.main.web-application-type=none", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        walletCache = context.getBean(WalletCache.class);
+
+        Wallet wallet = new Wallet();
+        wallet.setName("benchmark");
+        walletId = context.getBean(WalletService.class).save(wallet).getId();
+
+        // Compras com uma venda a cada quatro operações, sempre menor que o saldo do ativo
+        List<ImportRow> rows = new ArrayList<>(historySize);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < historySize; i++) {
+            boolean sell = (i / CRYPTOCURRENCIES.length) % 4 == 3;
+            Transaction transaction = new Transaction();
+            transaction.setCryptocurrency(CRYPTOCURRENCIES[i % CRYPTOCURRENCIES.length]);
+            transaction.setTransactionType(sell ? TransactionType.SELL : TransactionType.BUY);
+            transaction.setQuantity(new BigDecimal("0.01"));
+            transaction.setPricePerUnit(new BigDecimal("100.00"));
+            transaction.setTransactionDate(start.plusMinutes(i));
+            rows.add(ImportRow.parsed(i + 1, transaction));
+        }
+        context.getBean(TransactionImportService.class).importTransactions(walletId, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionStats streamPasses() {
+        List<Transaction> transactions = transactionService.findByWalletId(walletId);
+
+        long totalTransactions = transactions.size();
+        long buyTransactions = transactions.stream()
+                .mapToLong(t -> t.getTransactionType() == TransactionType.BUY ? 1 : 0)
+                .sum();
+        long sellTransactions = totalTransactions - buyTransactions;
+
+        BigDecimal totalInvested = transactions.stream()
+                .filter(t -> t.getTransactionType() == TransactionType.BUY)
+                .map(Transaction::getTotalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal totalWithdrawn = transactions.stream()
+                .filter(t -> t.getTransactionType() == TransactionType.SELL)
+                .map(Transaction::getTotalValue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return new TransactionStats(totalTransactions, buyTransactions, sellTransactions,
+                totalInvested, totalWithdrawn, totalInvested.subtract(totalWithdrawn));
+    }
+
+    @Benchmark
+    public TransactionStats groupedAggregate() {
+        walletCache.invalidate(walletId);
+        return transactionService.getTransactionStats(walletId);
+    }
+}
@@ -0,0 +1,126 @@
+package com.joaoac.cwm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.ImportRow;
+import com.joaoac.cwm.service.TransactionImportService;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletCache;
+import com.joaoac.cwm.service.WalletService;
+
+/**
+ * Saldo da carteira com o contexto Spring completo sobre H2, para históricos
+ * sintéticos de tamanhos diferentes. Também mede o custo do aspecto de
+ * métricas comparando a chamada pelo proxy com a chamada direta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletBalanceBenchmark {
+
+    private static final String[] CRYPTOCURRENCIES = { "BTC", "ETH", "SOL", "ADA", "DOT" };
+
+    @Param({ "100", "10000", "100000" })
+    private int historySize;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private WalletCache walletCache;
+    private TransactionService transactionService;
+    private TransactionService transactionServiceTarget;
+    private Long walletId;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(com.joaoac.cwm.Application.class)
+                .profiles("dev")
+                .run("--spring.main.web-application-type=none", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        walletService = context.getBean(WalletService.class);
+        walletCache = context.getBean(WalletCache.class);
+        transactionService = context.getBean(TransactionService.class);
+        transactionServiceTarget = (TransactionService) AopProxyUtils.getSingletonTarget(transactionService);
+
+        Wallet wallet = new Wallet();
+        wallet.setName("benchmark");
+        walletId = walletService.save(wallet).getId();
+
+        // Só compras, para que todas as linhas sejam aceitas
+        List<ImportRow> rows = new ArrayList<>(historySize);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < historySize; i++) {
+            Transaction buy = new Transaction();
+            buy.setCryptocurrency(CRYPTOCURRENCIES[i % CRYPTOCURRENCIES.length]);
+            buy.setTransactionType(TransactionType.BUY);
+            buy.setQuantity(new BigDecimal("0.01"));
+            buy.setPricePerUnit(new BigDecimal("100.00"));
+            buy.setTransactionDate(start.plusMinutes(i));
+            rows.add(ImportRow.parsed(i + 1, buy));
+        }
+        context.getBean(TransactionImportService.class).importTransactions(walletId, rows);
+
+        transaction = new Transaction();
+        transaction.setCryptocurrency("BTC");
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(BigDecimal.ONE);
+        transaction.setPricePerUnit(BigDecimal.TEN);
+        transaction.setTransactionDate(start);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> balanceFromDatabase() {
+        walletCache.invalidate(walletId);
+        return walletService.calculateWalletBalance(walletId);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> balanceFromCache() {
+        return walletService.calculateWalletBalance(walletId);
+    }
+
+    @Benchmark
+    public Transaction validateThroughMetricsProxy() {
+        transactionService.validateTransaction(transaction);
+        return transaction;
+    }
+
+    @Benchmark
+    public Transaction validateDirect() {
+        transactionServiceTarget.validateTransaction(transaction);
+        return transaction;
+    }
+}
@@ -0,0 +1,201 @@
+package com.joaoac.cwm.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.joaoac.cwm.Application;
+
+/**
+ * Teste de contenção das escritas condicionais: vários clientes leem a mesma
+ * transação ou carteira (GET, ETag) e tentam alterá-la com If-Match. Mede, por
+ * nível de clientes simultâneos, a taxa de conflitos (412), a vazão de escritas
+ * aceitas e a latência (p50/p99) do PUT.
+ * <p>
+ * Propriedades: loadtest.levels (ex.: 2,8,64,512), loadtest.duration e
+ * loadtest.warmup (segundos), loadtest.hot-keys (registros disputados de cada tipo).
+ * Execução: mvn -Ploadtest compile exec:java -Dloadtest.main=com.joaoac.cwm.loadtest.ContentionLoadTest
+ */
+public class ContentionLoadTest {
+
+    private static final String JSON = "application/json";
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("loadtest.levels", "2,8,64,512").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5));
+        int hotKeys = Integer.getInteger("loadtest.hot-keys", 1);
+
+        List<Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("dev")
+                .run("--server.port=0", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN", "--spring.h2.console.enabled=false")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            // Uma carteira e uma compra por registro disputado
+            List<String> walletUrls = new ArrayList<>();
+            List<String> transactionUrls = new ArrayList<>();
+            for (int i = 1; i <= hotKeys; i++) {
+                long walletId = idOf(client.send(post(baseUrl + "/wallets", "{\"name\":\"contention-" + i + "\"}"),
+                        HttpResponse.BodyHandlers.ofString()).body());
+                long transactionId = idOf(client.send(post(baseUrl + "/api/wallets/" + walletId + "/transactions",
+                        buyBody(1)), HttpResponse.BodyHandlers.ofString()).body());
+                walletUrls.add(baseUrl + "/wallets/" + walletId);
+                transactionUrls.add(baseUrl + "/api/transactions/" + transactionId);
+            }
+
+            for (String target : List.of("transaction", "wallet")) {
+                List<String> urls = target.equals("wallet") ? walletUrls : transactionUrls;
+                run(client, target, urls, levels[0], warmup);
+                for (int clients : levels) {
+                    results.add(run(client, target, urls, clients, duration));
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-12s %8s %10s %10s %10s %10s %12s %10s %10s%n",
+                "target", "clients", "attempts", "accepted", "412", "conflict%", "accepted/s", "p50 ms", "p99 ms");
+        for (Result r : results) {
+            System.out.printf("%-12s %8d %10d %10d %10d %10.1f %12.1f %10.2f %10.2f%n",
+                    r.target, r.clients, r.attempts, r.accepted, r.conflicts,
+                    r.attempts == 0 ? 0 : 100.0 * r.conflicts / r.attempts,
+                    r.acceptedPerSecond, r.p50Millis, r.p99Millis);
+        }
+    }
+
+    // Cada cliente repete: GET (ETag atual) e PUT condicional; 412 conta como conflito e recomeça
+    private static Result run(HttpClient client, String target, List<String> urls, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] values = new long[1024];
+                    int size = 0;
+                    while (System.nanoTime() < deadline) {
+                        String url = urls.get(random.nextInt(urls.size()));
+                        String body = target.equals("wallet")
+                                ? "{\"name\":\"contention\",\"description\":\"" + random.nextInt() + "\"}"
+                                : buyBody(random.nextInt(1, 100));
+                        try {
+                            HttpResponse<String> current = get(client, url);
+                            String etag = current.headers().firstValue("ETag").orElse(null);
+                            if (current.statusCode() != 200 || etag == null) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            long begin = System.nanoTime();
+                            int status = send(client, put(url, body, etag));
+                            if (size == values.length) {
+                                values = Arrays.copyOf(values, size * 2);
+                            }
+                            values[size++] = System.nanoTime() - begin;
+                            if (status == 200) {
+                                accepted.incrementAndGet();
+                            } else if (status == 412) {
+                                conflicts.incrementAndGet();
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    latencies.add(Arrays.copyOf(values, size));
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (errors.get() > 0) {
+            System.out.printf("%s, %d clientes: %d erros%n", target, clients, errors.get());
+        }
+        return new Result(target, clients, all.length, accepted.get(), conflicts.get(),
+                accepted.get() / (elapsed / 1e9), percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    // Primeiro campo "id" da resposta JSON de criação
+    private static long idOf(String json) {
+        int start = json.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(json.substring(start, end));
+    }
+
+    private static String buyBody(int quantity) {
+        return "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"BUY\",\"quantity\":" + quantity +
+                ",\"pricePerUnit\":65000,\"transactionDate\":\"2024-01-01T10:00:00\"}";
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest put(String url, String body, String etag) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", JSON)
+                .header("If-Match", etag)
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private record Result(String target, int clients, long attempts, long accepted, long conflicts,
+                          double acceptedPerSecond, double p50Millis, double p99Millis) {
+    }
+}
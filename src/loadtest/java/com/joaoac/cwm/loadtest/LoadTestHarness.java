@@ -0,0 +1,200 @@
+package com.joaoac.cwm.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.joaoac.cwm.Application;
+
+/**
+ * Teste de carga local: sobe a aplicação com o perfil dev (H2), primeiro com
+ * threads de plataforma e depois com threads virtuais, e mede vazão e
+ * latência (p50/p99) para cada nível de clientes simultâneos. As duas rodadas
+ * recebem os mesmos limites de pool de conexões e do Tomcat; só
+ * spring.threads.virtual.enabled muda entre elas.
+ * <p>
+ * Cada cliente é uma thread virtual que repete, sem pausa, uma mistura de
+ * listagem paginada, consulta de saldo e registro de compra.
+ * <p>
+ * Propriedades: loadtest.levels (ex.: 100,1000,10000), loadtest.duration e
+ * loadtest.warmup (segundos), loadtest.wallets (carteiras criadas),
+ * loadtest.pool-size (conexões do Hikari), loadtest.max-connections e
+ * loadtest.accept-count (Tomcat).
+ * Cliente e servidor rodam no mesmo processo: cada cliente usa dois
+ * descritores de arquivo, então 10k clientes exigem ulimit -n acima de 20k.
+ */
+public class LoadTestHarness {
+
+    private static final String JSON = "application/json";
+
+    public static void main(String[] args) throws Exception {
+        int[] levels = Arrays.stream(System.getProperty("loadtest.levels", "100,1000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5));
+        int wallets = Integer.getInteger("loadtest.wallets", 100);
+        // Mesmos limites nas duas rodadas (os valores do perfil virtual)
+        int poolSize = Integer.getInteger("loadtest.pool-size", 20);
+        int maxConnections = Integer.getInteger("loadtest.max-connections", 20000);
+        int acceptCount = Integer.getInteger("loadtest.accept-count", 1000);
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .profiles("dev")
+                    // Argumentos têm precedência sobre os arquivos do perfil
+                    .run("--server.port=0", "--spring.jpa.show-sql=false",
+                            "--logging.level.root=WARN", "--spring.h2.console.enabled=false",
+                            "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                            "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                            "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                            "--spring.datasource.hikari.connection-timeout=10000",
+                            "--server.tomcat.max-connections=" + maxConnections,
+                            "--server.tomcat.accept-count=" + acceptCount)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+
+                seed(client, baseUrl, wallets);
+                run(client, baseUrl, wallets, levels[0], warmup);
+                for (int clients : levels) {
+                    Result result = run(client, baseUrl, wallets, clients, duration);
+                    results.add(new Result(mode, clients, result.requests, result.errors,
+                            result.throughput, result.p50Millis, result.p99Millis));
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-9s %8s %10s %8s %12s %10s %10s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Result r : results) {
+            System.out.printf("%-9s %8d %10d %8d %12.1f %10.2f %10.2f%n",
+                    r.mode, r.clients, r.requests, r.errors, r.throughput, r.p50Millis, r.p99Millis);
+        }
+    }
+
+    // Cria as carteiras e uma compra inicial em cada uma
+    private static void seed(HttpClient client, String baseUrl, int wallets) throws Exception {
+        for (int i = 1; i <= wallets; i++) {
+            send(client, post(baseUrl + "/wallets", "{\"name\":\"loadtest-" + i + "\"}"));
+            send(client, post(baseUrl + "/api/wallets/" + i + "/transactions", buyBody()));
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, int wallets, int clients, Duration duration)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest(baseUrl, random.nextInt(1, wallets + 1), random.nextInt(100));
+                        long begin = System.nanoTime();
+                        try {
+                            int status = send(client, request);
+                            if (status >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.record(System.nanoTime() - begin);
+                    }
+                    latencies.add(recorder.values());
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double throughput = all.length / (elapsed / 1e9);
+        return new Result(null, clients, all.length, errors.get(), throughput,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    // Mistura de operações: 50% listagem paginada, 30% saldo, 20% compra
+    private static HttpRequest nextRequest(String baseUrl, int walletId, int dice) {
+        if (dice < 50) {
+            return get(baseUrl + "/api/wallets/" + walletId + "/transactions?size=20");
+        }
+        if (dice < 80) {
+            return get(baseUrl + "/wallets/" + walletId + "/balance");
+        }
+        return post(baseUrl + "/api/wallets/" + walletId + "/transactions", buyBody());
+    }
+
+    private static String buyBody() {
+        return "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"BUY\",\"quantity\":0.01,\"pricePerUnit\":65000}";
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    // Latências de um cliente, sem sincronização (uma thread por gravador)
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        long[] values() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private record Result(String mode, int clients, long requests, long errors, double throughput,
+                          double p50Millis, double p99Millis) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.joaoac.cwm.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Tempo de cada método público dos serviços de carteira, transação e posição,
+ * publicado como "cwm.service" com as tags class, operation, outcome e exception.
+ * Os timers de sucesso ficam em cache por método, então o caminho comum não
+ * monta tags nem consulta o registro a cada chamada.
+ * Chamadas internas ao próprio serviço não passam pelo proxy e não são medidas;
+ * a validação e a conferência de saldo dentro de save/update são medidas pelo
+ * próprio TransactionService (operation=validate e operation=balanceCheck).
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private static final String METRIC_NAME = "cwm.service";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.joaoac.cwm.service.TransactionService.*(..))"
+            + " || execution(public * com.joaoac.cwm.service.WalletService.*(..))"
+            + " || execution(public * com.joaoac.cwm.service.HoldingService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimers.computeIfAbsent(method, m -> timer(m, "success", "none"))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(method, "error", e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(Method method, String outcome, String exception) {
+        return timer(meterRegistry, method.getDeclaringClass().getSimpleName(), method.getName(), outcome, exception);
+    }
+
+    /**
+     * Timer "cwm.service" com o mesmo conjunto de tags usado pelo aspecto
+     */
+    public static Timer timer(MeterRegistry registry, String className, String operation,
+                              String outcome, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Tempo de execução dos métodos de serviço")
+                .tag("class", className)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.joaoac.cwm.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.joaoac.cwm.dto.AssetResponse;
+import com.joaoac.cwm.model.Asset;
+import com.joaoac.cwm.service.AssetRegistry;
+
+@RestController
+@RequestMapping("/api/assets")
+@CrossOrigin(origins = "*")
+public class AssetController {
+
+    @Autowired
+    private AssetRegistry assetRegistry;
+
+    /**
+     * Listar os ativos do registro (inclusive inativos)
+     */
+    @GetMapping
+    public ResponseEntity<List<AssetResponse>> getAssets() {
+        return ResponseEntity.ok(assetRegistry.getAssets().stream().map(AssetResponse::from).toList());
+    }
+
+    /**
+     * Cadastrar ou atualizar um ativo (por símbolo); vale imediatamente nesta instância
+     */
+    @PostMapping
+    public ResponseEntity<AssetResponse> saveAsset(@RequestBody Asset asset) {
+        try {
+            return ResponseEntity.ok(AssetResponse.from(assetRegistry.save(asset)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recarregar o registro a partir do banco
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<List<AssetResponse>> refreshAssets() {
+        assetRegistry.refresh();
+        return getAssets();
+    }
+}
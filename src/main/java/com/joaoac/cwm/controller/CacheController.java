@@ -0,0 +1,30 @@
+package com.joaoac.cwm.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.joaoac.cwm.dto.CacheStatsResponse;
+import com.joaoac.cwm.service.WalletCache;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private WalletCache walletCache;
+
+    /**
+     * Obter acertos, faltas e despejos dos caches de carteira
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(walletCache.getCacheStats());
+    }
+}
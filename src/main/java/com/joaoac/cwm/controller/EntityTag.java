@@ -0,0 +1,44 @@
+package com.joaoac.cwm.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ETag das entidades versionadas: a versão (@Version) entre aspas.
+ */
+final class EntityTag {
+
+    private EntityTag() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versões aceitas por um If-Match; null quando o cabeçalho está ausente ou é "*".
+     * Na comparação forte tags fracas (W/"3") nunca coincidem, e tags que não são
+     * uma versão também não: ficam fora do conjunto, que pode sair vazio (412)
+     */
+    static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                continue;
+            }
+            if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            try {
+                versions.add(Long.valueOf(tag));
+            } catch (NumberFormatException e) {
+                // Tag de outro formato: não corresponde a nenhuma versão
+            }
+        }
+        return versions;
+    }
+}
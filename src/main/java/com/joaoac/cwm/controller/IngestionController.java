@@ -0,0 +1,28 @@
+package com.joaoac.cwm.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.joaoac.cwm.dto.IngestionStatus;
+import com.joaoac.cwm.service.ingest.IngestionService;
+
+@RestController
+@RequestMapping("/api/ingest")
+@CrossOrigin(origins = "*")
+public class IngestionController {
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    /**
+     * Obter fila, atraso e vazão da ingestão assíncrona
+     */
+    @GetMapping("/status")
+    public ResponseEntity<IngestionStatus> getStatus() {
+        return ResponseEntity.ok(ingestionService.getStatus());
+    }
+}
@@ -0,0 +1,84 @@
+package com.joaoac.cwm.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.joaoac.cwm.dto.LedgerHoldings;
+import com.joaoac.cwm.dto.LedgerPage;
+import com.joaoac.cwm.dto.LedgerSnapshotResult;
+import com.joaoac.cwm.service.ledger.LedgerService;
+import com.joaoac.cwm.service.ledger.LedgerSnapshotJob;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class LedgerController {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LedgerSnapshotJob ledgerSnapshotJob;
+
+    /**
+     * Listar os eventos do ledger da carteira a partir de uma sequência
+     */
+    @GetMapping("/wallets/{walletId}/ledger")
+    public ResponseEntity<LedgerPage> getLedger(@PathVariable Long walletId,
+                                                @RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(ledgerService.findPage(walletId, after, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Saldo reconstruído do ledger (último snapshot mais os eventos seguintes)
+     */
+    @GetMapping("/wallets/{walletId}/ledger/holdings")
+    public ResponseEntity<LedgerHoldings> getLedgerHoldings(@PathVariable Long walletId) {
+        try {
+            return ResponseEntity.ok(ledgerService.getHoldings(walletId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Reescrever as posições da carteira a partir do ledger
+     */
+    @PostMapping("/wallets/{walletId}/ledger/rebuild")
+    public ResponseEntity<LedgerHoldings> rebuildHoldings(@PathVariable Long walletId) {
+        try {
+            return ResponseEntity.ok(ledgerService.rebuildHoldings(walletId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Gravar agora os snapshots pendentes do ledger
+     */
+    @PostMapping("/ledger/snapshots")
+    public ResponseEntity<LedgerSnapshotResult> buildSnapshots() {
+        LedgerSnapshotResult result = ledgerSnapshotJob.run();
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,33 @@
+package com.joaoac.cwm.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.joaoac.cwm.dto.SnapshotBuildResult;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotJob;
+
+@RestController
+@RequestMapping("/api/snapshots")
+@CrossOrigin(origins = "*")
+public class SnapshotController {
+
+    @Autowired
+    private BalanceSnapshotJob balanceSnapshotJob;
+
+    /**
+     * Consolidar agora os snapshots diários (retoma de onde a última execução parou)
+     */
+    @PostMapping("/build")
+    public ResponseEntity<SnapshotBuildResult> buildSnapshots() {
+        SnapshotBuildResult result = balanceSnapshotJob.run();
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,13 +1,17 @@
 package com.joaoac.cwm.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,13 +20,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.dto.BalanceCheckResponse;
+import com.joaoac.cwm.dto.ImportResult;
+import com.joaoac.cwm.dto.IngestionAck;
+import com.joaoac.cwm.dto.TransactionPage;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.dto.TransactionStats;
+import com.joaoac.cwm.dto.TransactionTypesResponse;
+import com.joaoac.cwm.dto.ValidationErrorResponse;
+import com.joaoac.cwm.enums.ExportFormat;
 import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.repository.TransactionFilter;
+import com.joaoac.cwm.service.ImportRow;
+import com.joaoac.cwm.service.TransactionExportService;
+import com.joaoac.cwm.service.TransactionImportReader;
+import com.joaoac.cwm.service.TransactionImportService;
 import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.TransactionValidationException;
+import com.joaoac.cwm.service.VersionConflictException;
+import com.joaoac.cwm.service.WalletService;
+import com.joaoac.cwm.service.ingest.IngestionRejectedException;
+import com.joaoac.cwm.service.ingest.IngestionService;
 
 @RestController
 @RequestMapping("/api")
@@ -32,36 +56,65 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private TransactionImportReader transactionImportReader;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private IngestionService ingestionService;
+
     /**
-     * Listar todas as transações
+     * Listar todas as transações (paginado por cursor)
      */
     @GetMapping("/transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.findAll();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<TransactionPage> getAllTransactions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "desc") String order) {
+        try {
+            TransactionPage page = transactionService.findPage(TransactionFilter.all(), cursor, size, order);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
      * Buscar transação por ID
      */
     @GetMapping("/transactions/{id}")
-    public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
+    public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable Long id) {
         try {
             Transaction transaction = transactionService.findById(id);
-            return ResponseEntity.ok(transaction);
+            return ResponseEntity.ok().eTag(EntityTag.of(transaction.getVersion()))
+                    .body(TransactionResponse.from(transaction));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     /**
-     * Listar transações de uma carteira
+     * Listar transações de uma carteira (paginado por cursor)
      */
     @GetMapping("/wallets/{walletId}/transactions")
-    public ResponseEntity<List<Transaction>> getTransactionsByWalletId(@PathVariable Long walletId) {
+    public ResponseEntity<TransactionPage> getTransactionsByWalletId(
+            @PathVariable Long walletId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "desc") String order) {
         try {
-            List<Transaction> transactions = transactionService.findByWalletId(walletId);
-            return ResponseEntity.ok(transactions);
+            TransactionPage page = transactionService.findPage(TransactionFilter.byWallet(walletId), cursor, size, order);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -71,25 +124,81 @@ public class TransactionController {
      * Criar nova transação para uma carteira
      */
     @PostMapping("/wallets/{walletId}/transactions")
-    public ResponseEntity<Transaction> createTransaction(@PathVariable Long walletId,
-                                                       @RequestBody Transaction transaction) {
+    public ResponseEntity<?> createTransaction(@PathVariable Long walletId,
+                                               @RequestBody Transaction transaction) {
         try {
             Transaction savedTransaction = transactionService.save(walletId, transaction);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedTransaction);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(EntityTag.of(savedTransaction.getVersion()))
+                    .body(TransactionResponse.from(savedTransaction));
+        } catch (TransactionValidationException e) {
+            return ResponseEntity.badRequest().body(ValidationErrorResponse.from(e.getErrors()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     /**
-     * Atualizar transação existente
+     * Registrar compra para gravação assíncrona (202 assim que estiver no journal)
+     */
+    @PostMapping("/wallets/{walletId}/transactions/async")
+    public ResponseEntity<?> ingestTransaction(@PathVariable Long walletId,
+                                               @RequestBody Transaction transaction) {
+        try {
+            IngestionAck ack = ingestionService.submit(walletId, transaction);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ack);
+        } catch (TransactionValidationException e) {
+            return ResponseEntity.badRequest().body(ValidationErrorResponse.from(e.getErrors()));
+        } catch (IngestionRejectedException e) {
+            // Fila cheia: 429 para o cliente reduzir o ritmo; indisponível: 503
+            HttpStatus status = e.isQueueFull() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+            return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Importar transações em lote (array JSON, NDJSON ou CSV)
+     */
+    @PostMapping(value = "/wallets/{walletId}/transactions/import",
+                 consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson", "text/csv" })
+    public ResponseEntity<ImportResult> importTransactions(@PathVariable Long walletId,
+                                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                           InputStream body) {
+        try {
+            walletService.validateWalletExists(walletId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            List<ImportRow> rows = transactionImportReader.read(contentType, body);
+            ImportResult result = transactionImportService.importTransactions(walletId, rows);
+            return ResponseEntity.ok(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Atualizar transação existente (com If-Match, só se a versão ainda for uma das informadas; senão 412)
      */
     @PutMapping("/transactions/{id}")
-    public ResponseEntity<Transaction> updateTransaction(@PathVariable Long id,
-                                                       @RequestBody Transaction transactionDetails) {
+    public ResponseEntity<?> updateTransaction(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody Transaction transactionDetails) {
+        Set<Long> acceptedVersions = EntityTag.parseIfMatch(ifMatch);
+
         try {
-            Transaction updatedTransaction = transactionService.update(id, transactionDetails);
-            return ResponseEntity.ok(updatedTransaction);
+            Transaction updatedTransaction = transactionService.update(id, transactionDetails, acceptedVersions);
+            return ResponseEntity.ok().eTag(EntityTag.of(updatedTransaction.getVersion()))
+                    .body(TransactionResponse.from(updatedTransaction));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(EntityTag.of(e.getCurrentVersion())).build();
+        } catch (TransactionValidationException e) {
+            return ResponseEntity.badRequest().body(ValidationErrorResponse.from(e.getErrors()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(acceptedVersions != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -109,33 +218,78 @@ public class TransactionController {
     }
 
     /**
-     * Buscar transações por carteira e criptomoeda
+     * Buscar transações por carteira e criptomoeda (paginado por cursor)
      */
     @GetMapping("/wallets/{walletId}/transactions/cryptocurrency/{crypto}")
-    public ResponseEntity<List<Transaction>> getTransactionsByCrypto(@PathVariable Long walletId,
-                                                                   @PathVariable String crypto) {
+    public ResponseEntity<TransactionPage> getTransactionsByCrypto(
+            @PathVariable Long walletId,
+            @PathVariable String crypto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "desc") String order) {
         try {
-            List<Transaction> transactions = transactionService.findByWalletIdAndCryptocurrency(walletId, crypto);
-            return ResponseEntity.ok(transactions);
+            TransactionFilter filter = new TransactionFilter(walletId, crypto.toUpperCase(), null, null);
+            TransactionPage page = transactionService.findPage(filter, cursor, size, order);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     /**
-     * Buscar transações por período
+     * Buscar transações por período (paginado por cursor)
      */
     @GetMapping("/wallets/{walletId}/transactions/period")
-    public ResponseEntity<List<Transaction>> getTransactionsByDateRange(
+    public ResponseEntity<TransactionPage> getTransactionsByDateRange(
             @PathVariable Long walletId,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "desc") String order) {
         try {
             LocalDateTime start = LocalDateTime.parse(startDate);
             LocalDateTime end = LocalDateTime.parse(endDate);
             
-            List<Transaction> transactions = transactionService.findByWalletIdAndDateRange(walletId, start, end);
-            return ResponseEntity.ok(transactions);
+            TransactionFilter filter = new TransactionFilter(walletId, null, start, end);
+            TransactionPage page = transactionService.findPage(filter, cursor, size, order);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exportar histórico de transações em streaming (NDJSON ou CSV)
+     */
+    @GetMapping("/wallets/{walletId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable Long walletId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String cryptocurrency,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        try {
+            walletService.validateWalletExists(walletId);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            ExportFormat exportFormat = ExportFormat.fromString(format);
+            TransactionFilter filter = new TransactionFilter(walletId,
+                    cryptocurrency != null ? cryptocurrency.toUpperCase() : null,
+                    startDate != null ? LocalDateTime.parse(startDate) : null,
+                    endDate != null ? LocalDateTime.parse(endDate) : null);
+
+            StreamingResponseBody body = output -> transactionExportService.export(filter, exportFormat, output);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"wallet-" + walletId + "-transactions." + exportFormat.getExtension() + "\"")
+                    .body(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -145,21 +299,12 @@ public class TransactionController {
      * Verificar saldo disponível para venda
      */
     @GetMapping("/wallets/{walletId}/balance-check")
-    public ResponseEntity<Map<String, Object>> checkBalance(@PathVariable Long walletId,
-                                                           @RequestParam String cryptocurrency,
-                                                           @RequestParam BigDecimal quantity) {
+    public ResponseEntity<BalanceCheckResponse> checkBalance(@PathVariable Long walletId,
+                                                             @RequestParam String cryptocurrency,
+                                                             @RequestParam BigDecimal quantity) {
         try {
             boolean sufficientBalance = transactionService.checkSufficientBalance(walletId, cryptocurrency, quantity);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("sufficientBalance", sufficientBalance);
-            response.put("cryptocurrency", cryptocurrency);
-            response.put("requestedQuantity", quantity);
-            response.put("message", sufficientBalance ? 
-                "Saldo suficiente para a operação" : 
-                "Saldo insuficiente para a operação");
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(BalanceCheckResponse.of(sufficientBalance, cryptocurrency, quantity));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -169,55 +314,17 @@ public class TransactionController {
      * Obter tipos de transação disponíveis
      */
     @GetMapping("/transaction-types")
-    public ResponseEntity<Map<String, Object>> getTransactionTypes() {
-        Map<String, Object> response = new HashMap<>();
-        
-        Map<String, String> types = new HashMap<>();
-        for (TransactionType type : TransactionType.values()) {
-            types.put(type.name(), type.getDisplayName());
-        }
-        
-        response.put("types", types);
-        response.put("descriptions", Map.of(
-            "BUY", TransactionType.BUY.getDescription(),
-            "SELL", TransactionType.SELL.getDescription()
-        ));
-        
-        return ResponseEntity.ok(response);
+    public ResponseEntity<TransactionTypesResponse> getTransactionTypes() {
+        return ResponseEntity.ok(TransactionTypesResponse.INSTANCE);
     }
 
     /**
      * Estatísticas rápidas de uma carteira
      */
     @GetMapping("/wallets/{walletId}/transaction-stats")
-    public ResponseEntity<Map<String, Object>> getTransactionStats(@PathVariable Long walletId) {
+    public ResponseEntity<TransactionStats> getTransactionStats(@PathVariable Long walletId) {
         try {
-            List<Transaction> transactions = transactionService.findByWalletId(walletId);
-            
-            long totalTransactions = transactions.size();
-            long buyTransactions = transactions.stream()
-                .mapToLong(t -> t.getTransactionType() == TransactionType.BUY ? 1 : 0)
-                .sum();
-            long sellTransactions = totalTransactions - buyTransactions;
-            
-            BigDecimal totalInvested = transactions.stream()
-                .filter(t -> t.getTransactionType() == TransactionType.BUY)
-                .map(Transaction::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
-            BigDecimal totalWithdrawn = transactions.stream()
-                .filter(t -> t.getTransactionType() == TransactionType.SELL)
-                .map(Transaction::getTotalValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalTransactions", totalTransactions);
-            stats.put("buyTransactions", buyTransactions);
-            stats.put("sellTransactions", sellTransactions);
-            stats.put("totalInvested", totalInvested);
-            stats.put("totalWithdrawn", totalWithdrawn);
-            stats.put("netInvestment", totalInvested.subtract(totalWithdrawn));
-            
+            TransactionStats stats = transactionService.getTransactionStats(walletId);
             return ResponseEntity.ok(stats);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -228,18 +335,11 @@ public class TransactionController {
      * Obter última transação de uma carteira
      */
     @GetMapping("/wallets/{walletId}/transactions/latest")
-    public ResponseEntity<Transaction> getLatestTransaction(@PathVariable Long walletId) {
+    public ResponseEntity<TransactionResponse> getLatestTransaction(@PathVariable Long walletId) {
         try {
-            List<Transaction> transactions = transactionService.findByWalletId(walletId);
-            if (transactions.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            Transaction latest = transactions.stream()
-                .max((t1, t2) -> t1.getTransactionDate().compareTo(t2.getTransactionDate()))
-                .orElse(null);
-                
-            return ResponseEntity.ok(latest);
+            return transactionService.findLatestByWalletId(walletId)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,16 +1,37 @@
 package com.joaoac.cwm.controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.joaoac.cwm.dto.BalanceAt;
+import com.joaoac.cwm.dto.BalancePoint;
+import com.joaoac.cwm.dto.CostBasisReport;
+import com.joaoac.cwm.dto.PortfolioResponse;
+import com.joaoac.cwm.dto.WalletPage;
+import com.joaoac.cwm.dto.WalletResponse;
+import com.joaoac.cwm.dto.WalletValuation;
+import com.joaoac.cwm.enums.CostBasisMethod;
+import com.joaoac.cwm.enums.NameMatch;
 import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.PortfolioService;
+import com.joaoac.cwm.service.VersionConflictException;
 import com.joaoac.cwm.service.WalletService;
+import com.joaoac.cwm.service.costbasis.CostBasisService;
+import com.joaoac.cwm.service.price.ValuationService;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotService;
 
 import jakarta.validation.Valid;
 
@@ -21,19 +42,49 @@ public class WalletController {
     @Autowired
     private WalletService walletService;
 
-    // Listar todas as carteiras
+    @Autowired
+    private CostBasisService costBasisService;
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    // Listar carteiras (paginado por ID; filtro de nome por prefixo ou por trecho)
     @GetMapping
-    public ResponseEntity<List<Wallet>> getAllWallets() {
-        List<Wallet> wallets = walletService.findAll();
-        return ResponseEntity.ok(wallets);
+    public ResponseEntity<WalletPage> getAllWallets(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String name,
+                                                    @RequestParam(defaultValue = "prefix") String match) {
+        try {
+            WalletPage wallets = walletService.findPage(after, size, name, NameMatch.fromString(match));
+            return ResponseEntity.ok(wallets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Saldo consolidado de várias carteiras (por IDs e/ou filtro de nome), com detalhamento por carteira
+    @GetMapping("/portfolio")
+    public ResponseEntity<PortfolioResponse> getPortfolio(@RequestParam(required = false) List<Long> ids,
+                                                          @RequestParam(required = false) String name) {
+        try {
+            return ResponseEntity.ok(portfolioService.getPortfolio(ids, name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Buscar carteira por ID
     @GetMapping("/{id}")
-    public ResponseEntity<Wallet> getWalletById(@PathVariable Long id) {
+    public ResponseEntity<WalletResponse> getWalletById(@PathVariable Long id) {
         try {
             Wallet wallet = walletService.findById(id);
-            return ResponseEntity.ok(wallet);
+            return ResponseEntity.ok().eTag(EntityTag.of(wallet.getVersion())).body(WalletResponse.from(wallet));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -41,31 +92,45 @@ public class WalletController {
     
     // Criar nova carteira
     @PostMapping
-    public ResponseEntity<Wallet> createWallet(@Valid @RequestBody Wallet wallet) {
+    public ResponseEntity<WalletResponse> createWallet(@Valid @RequestBody Wallet wallet) {
         try {
             Wallet savedWallet = walletService.save(wallet);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedWallet);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(EntityTag.of(savedWallet.getVersion()))
+                    .body(WalletResponse.from(savedWallet));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    // Atualizar carteira existente
+    // Atualizar carteira existente (com If-Match, só se a versão ainda for uma das informadas; senão 412)
     @PutMapping("/{id}")
-    public ResponseEntity<Wallet> updateWallet(@PathVariable Long id, @Valid @RequestBody Wallet wallet) {
+    public ResponseEntity<WalletResponse> updateWallet(@PathVariable Long id,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @Valid @RequestBody Wallet wallet) {
+        Set<Long> acceptedVersions = EntityTag.parseIfMatch(ifMatch);
+
         try {
-            Wallet updatedWallet = walletService.update(id, wallet);
-            return ResponseEntity.ok(updatedWallet);
+            Wallet updatedWallet = walletService.update(id, wallet, acceptedVersions);
+            return ResponseEntity.ok().eTag(EntityTag.of(updatedWallet.getVersion())).body(WalletResponse.from(updatedWallet));
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(EntityTag.of(e.getCurrentVersion())).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(acceptedVersions != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Deletar carteira
+    // Deletar carteira (purge=true remove também todo o histórico de transações)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteWallet(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteWallet(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "false") boolean purge) {
         try {
-            walletService.deleteById(id);
+            if (purge) {
+                walletService.purgeById(id);
+            } else {
+                walletService.deleteById(id);
+            }
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -83,15 +148,80 @@ public class WalletController {
         }
     }
 
+    // Saldo em um instante passado (data ou data e hora; só a data considera o fim do dia)
+    @GetMapping("/{id}/balance/at")
+    public ResponseEntity<BalanceAt> getWalletBalanceAt(@PathVariable Long id, @RequestParam String date) {
+        LocalDateTime at;
+        try {
+            at = date.length() == 10 ? LocalDate.parse(date).atTime(LocalTime.MAX) : LocalDateTime.parse(date);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(balanceSnapshotService.balanceAt(id, at));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Série diária de saldos (fim de cada dia) em um período
+    @GetMapping("/{id}/balance/history")
+    public ResponseEntity<List<BalancePoint>> getWalletBalanceHistory(@PathVariable Long id,
+                                                                      @RequestParam String startDate,
+                                                                      @RequestParam String endDate) {
+        try {
+            return ResponseEntity.ok(balanceSnapshotService.balanceSeries(id,
+                    LocalDate.parse(startDate), LocalDate.parse(endDate)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Avaliar a carteira pelas cotações atuais
+    @GetMapping("/{id}/valuation")
+    public ResponseEntity<WalletValuation> getWalletValuation(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(valuationService.valueWallet(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Avaliar várias carteiras em lote (mesmas cotações para todas)
+    @PostMapping("/valuations")
+    public ResponseEntity<List<WalletValuation>> getWalletValuations(@RequestBody List<Long> walletIds) {
+        return ResponseEntity.ok(valuationService.valueWallets(walletIds));
+    }
+
     // Obter total investido na carteira
     @GetMapping("/{id}/total-invested")
     public ResponseEntity<BigDecimal> getTotalInvested(@PathVariable Long id) {
         try {
-            Wallet wallet = walletService.findById(id);
-            BigDecimal totalInvested = wallet.getTotalInvested();
+            BigDecimal totalInvested = walletService.calculateTotalInvested(id);
             return ResponseEntity.ok(totalInvested);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Obter custo, lotes em aberto e P&L realizado (FIFO, LIFO ou AVERAGE_COST)
+    @GetMapping("/{id}/cost-basis")
+    public ResponseEntity<CostBasisReport> getCostBasis(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "FIFO") String method) {
+        CostBasisMethod costBasisMethod;
+        try {
+            costBasisMethod = CostBasisMethod.fromString(method);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(costBasisService.report(id, costBasisMethod));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Custo e P&L de um ativo da carteira. O P&L não realizado é a quantidade em aberto
+ * pela cotação vigente menos o custo em aberto; price e unrealizedPnl são nulos
+ * quando há saldo e não há cotação para o símbolo.
+ */
+public record AssetCostBasis(String cryptocurrency,
+                             BigDecimal quantity,
+                             BigDecimal costBasis,
+                             BigDecimal averageCost,
+                             BigDecimal realizedPnl,
+                             BigDecimal price,
+                             BigDecimal unrealizedPnl,
+                             List<LotResponse> openLots) {
+}
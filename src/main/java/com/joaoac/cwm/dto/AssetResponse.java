@@ -0,0 +1,16 @@
+package com.joaoac.cwm.dto;
+
+import com.joaoac.cwm.model.Asset;
+
+/**
+ * Ativo cadastrado no registro.
+ */
+public record AssetResponse(Short id,
+                            String symbol,
+                            String name,
+                            boolean active) {
+
+    public static AssetResponse from(Asset asset) {
+        return new AssetResponse(asset.getId(), asset.getSymbol(), asset.getName(), asset.isActive());
+    }
+}
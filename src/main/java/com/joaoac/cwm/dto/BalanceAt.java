@@ -0,0 +1,13 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Saldo da carteira em um instante do passado.
+ */
+public record BalanceAt(Long walletId,
+                        LocalDateTime at,
+                        Map<String, BigDecimal> balances) {
+}
@@ -0,0 +1,17 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado da verificação de saldo para venda.
+ */
+public record BalanceCheckResponse(boolean sufficientBalance,
+                                   String cryptocurrency,
+                                   BigDecimal requestedQuantity,
+                                   String message) {
+
+    public static BalanceCheckResponse of(boolean sufficientBalance, String cryptocurrency, BigDecimal quantity) {
+        return new BalanceCheckResponse(sufficientBalance, cryptocurrency, quantity,
+                sufficientBalance ? "Saldo suficiente para a operação" : "Saldo insuficiente para a operação");
+    }
+}
@@ -0,0 +1,12 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Saldo da carteira ao fim de um dia.
+ */
+public record BalancePoint(LocalDate date,
+                           Map<String, BigDecimal> balances) {
+}
@@ -0,0 +1,19 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import com.joaoac.cwm.enums.CostBasisMethod;
+
+/**
+ * Relatório de custo de uma carteira pelo método escolhido, com a data das cotações
+ * usadas no P&L não realizado. O total não realizado ignora ativos sem cotação.
+ */
+public record CostBasisReport(Long walletId,
+                              CostBasisMethod method,
+                              BigDecimal realizedPnl,
+                              BigDecimal unrealizedPnl,
+                              Instant pricedAt,
+                              List<AssetCostBasis> positions) {
+}
@@ -0,0 +1,7 @@
+package com.joaoac.cwm.dto;
+
+/**
+ * Linha rejeitada na importação (numeração a partir de 1, na ordem do arquivo).
+ */
+public record ImportError(int row, String message) {
+}
@@ -0,0 +1,9 @@
+package com.joaoac.cwm.dto;
+
+import java.util.List;
+
+/**
+ * Relatório da importação em lote: linhas válidas são gravadas, as demais listadas em {@code errors}.
+ */
+public record ImportResult(int received, int imported, int rejected, List<ImportError> errors) {
+}
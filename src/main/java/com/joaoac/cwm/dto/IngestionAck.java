@@ -0,0 +1,13 @@
+package com.joaoac.cwm.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Confirmação de uma transação aceita para gravação assíncrona.
+ * O id é a sequência no journal: a transação está no banco quando
+ * lastCommittedId do status alcança esse valor.
+ */
+public record IngestionAck(long id,
+                           Long walletId,
+                           LocalDateTime acceptedAt) {
+}
@@ -0,0 +1,20 @@
+package com.joaoac.cwm.dto;
+
+/**
+ * Estado da ingestão assíncrona: fila, atraso em relação ao banco e vazão de gravação.
+ */
+public record IngestionStatus(boolean enabled,
+                              boolean accepting,
+                              int queued,
+                              int capacity,
+                              long lastAcceptedId,
+                              long lastCommittedId,
+                              long lag,
+                              long oldestPendingMillis,
+                              long committedTotal,
+                              long rejectedTotal,
+                              double committedPerSecond,
+                              int lastBatchSize,
+                              long lastBatchMillis,
+                              String lastError) {
+}
@@ -0,0 +1,26 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.joaoac.cwm.enums.LedgerEventType;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.LedgerEvent;
+
+/**
+ * Evento do ledger de uma carteira; os campos {@code previous*} só vêm preenchidos em AMENDED.
+ */
+public record LedgerEventResponse(long sequence, LedgerEventType eventType, Long transactionId,
+                                  String cryptocurrency, TransactionType transactionType, BigDecimal quantity,
+                                  BigDecimal pricePerUnit, BigDecimal totalValue, LocalDateTime transactionDate,
+                                  String previousCryptocurrency, TransactionType previousTransactionType,
+                                  BigDecimal previousQuantity, LocalDateTime recordedAt) {
+
+    public static LedgerEventResponse from(LedgerEvent event) {
+        return new LedgerEventResponse(event.getSequence(), event.getEventType(), event.getTransactionId(),
+                event.getCryptocurrency(), event.getTransactionType(), event.getQuantity(),
+                event.getPricePerUnit(), event.getTotalValue(), event.getTransactionDate(),
+                event.getPreviousCryptocurrency(), event.getPreviousTransactionType(),
+                event.getPreviousQuantity(), event.getRecordedAt());
+    }
+}
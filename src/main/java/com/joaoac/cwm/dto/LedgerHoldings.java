@@ -0,0 +1,11 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Saldo reconstruído do ledger: snapshot de partida mais os eventos seguintes até {@code sequence}.
+ */
+public record LedgerHoldings(Long walletId, long sequence, long snapshotSequence, long replayedEvents,
+                             Map<String, BigDecimal> balances) {
+}
@@ -0,0 +1,10 @@
+package com.joaoac.cwm.dto;
+
+import java.util.List;
+
+/**
+ * Página de eventos do ledger em ordem de sequência; {@code next} é o parâmetro
+ * {@code after} da página seguinte ou nulo na última.
+ */
+public record LedgerPage(List<LedgerEventResponse> content, int size, Long next) {
+}
@@ -0,0 +1,7 @@
+package com.joaoac.cwm.dto;
+
+/**
+ * Resultado de uma execução dos snapshots do ledger.
+ */
+public record LedgerSnapshotResult(int walletsProcessed, int snapshotsCreated) {
+}
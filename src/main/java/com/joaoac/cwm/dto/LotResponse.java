@@ -0,0 +1,10 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lote em aberto de um ativo.
+ */
+public record LotResponse(LocalDateTime acquiredAt, BigDecimal quantity, BigDecimal unitCost) {
+}
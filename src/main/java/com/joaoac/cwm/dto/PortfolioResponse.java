@@ -0,0 +1,13 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saldo somado de um conjunto de carteiras, com o detalhamento por carteira.
+ */
+public record PortfolioResponse(int walletCount,
+                                Map<String, BigDecimal> totals,
+                                List<WalletHoldings> wallets) {
+}
@@ -0,0 +1,13 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Posição de uma criptomoeda avaliada pela cotação vigente.
+ * price e value são nulos quando não há cotação para o símbolo.
+ */
+public record PositionValuation(String cryptocurrency,
+                                BigDecimal quantity,
+                                BigDecimal price,
+                                BigDecimal value) {
+}
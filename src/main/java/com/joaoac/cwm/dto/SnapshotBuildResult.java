@@ -0,0 +1,8 @@
+package com.joaoac.cwm.dto;
+
+/**
+ * Resultado de uma execução da consolidação de snapshots.
+ */
+public record SnapshotBuildResult(int walletsProcessed,
+                                  int snapshotsCreated) {
+}
@@ -0,0 +1,39 @@
+package com.joaoac.cwm.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de keyset (transactionDate, id) da última transação de uma página.
+ * Trafega para o cliente como uma string opaca em Base64 URL-safe.
+ */
+public record TransactionCursor(LocalDateTime transactionDate, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static TransactionCursor of(TransactionResponse transaction) {
+        return new TransactionCursor(transaction.transactionDate(), transaction.id());
+    }
+
+    // Converte o cursor recebido do cliente; nulo ou vazio indica a primeira página
+    public static TransactionCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = transactionDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package com.joaoac.cwm.dto;
+
+import java.util.List;
+
+/**
+ * Página de transações; {@code next} é o cursor da página seguinte ou nulo na última.
+ */
+public record TransactionPage(List<TransactionResponse> content, int size, String next) {
+}
@@ -0,0 +1,31 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+
+/**
+ * Representação plana de uma transação, sem a carteira aninhada.
+ */
+@JsonPropertyOrder({ "id", "walletId", "cryptocurrency", "transactionType", "quantity",
+                     "pricePerUnit", "totalValue", "transactionDate", "notes" })
+public record TransactionResponse(Long id,
+                                  Long walletId,
+                                  String cryptocurrency,
+                                  TransactionType transactionType,
+                                  BigDecimal quantity,
+                                  BigDecimal pricePerUnit,
+                                  BigDecimal totalValue,
+                                  LocalDateTime transactionDate,
+                                  String notes) {
+
+    public static TransactionResponse from(Transaction transaction) {
+        return new TransactionResponse(transaction.getId(), transaction.getWalletId(),
+                transaction.getCryptocurrency(), transaction.getTransactionType(), transaction.getQuantity(),
+                transaction.getPricePerUnit(), transaction.getTotalValue(), transaction.getTransactionDate(),
+                transaction.getNotes());
+    }
+}
@@ -0,0 +1,14 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Estatísticas de transações de uma carteira.
+ */
+public record TransactionStats(long totalTransactions,
+                               long buyTransactions,
+                               long sellTransactions,
+                               BigDecimal totalInvested,
+                               BigDecimal totalWithdrawn,
+                               BigDecimal netInvestment) {
+}
@@ -0,0 +1,27 @@
+package com.joaoac.cwm.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.joaoac.cwm.enums.TransactionType;
+
+/**
+ * Tipos de transação disponíveis, com nome de exibição e descrição.
+ */
+public record TransactionTypesResponse(Map<String, String> types, Map<String, String> descriptions) {
+
+    // O conteúdo depende só do enum: montado uma vez e reutilizado em todas as respostas
+    public static final TransactionTypesResponse INSTANCE = build();
+
+    private static TransactionTypesResponse build() {
+        Map<String, String> types = new LinkedHashMap<>();
+        Map<String, String> descriptions = new LinkedHashMap<>();
+        for (TransactionType type : TransactionType.values()) {
+            types.put(type.name(), type.getDisplayName());
+            descriptions.put(type.name(), type.getDescription());
+        }
+        return new TransactionTypesResponse(Collections.unmodifiableMap(types),
+                Collections.unmodifiableMap(descriptions));
+    }
+}
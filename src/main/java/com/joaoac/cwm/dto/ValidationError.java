@@ -0,0 +1,18 @@
+package com.joaoac.cwm.dto;
+
+import com.joaoac.cwm.enums.ValidationErrorCode;
+
+/**
+ * Violação de uma regra de validação, com o valor rejeitado.
+ * A mensagem só é montada quando solicitada.
+ */
+public record ValidationError(ValidationErrorCode code, Object rejectedValue) {
+
+    public String field() {
+        return code.getField();
+    }
+
+    public String message() {
+        return rejectedValue == null ? code.getDescription() : code.getDescription() + ": " + rejectedValue;
+    }
+}
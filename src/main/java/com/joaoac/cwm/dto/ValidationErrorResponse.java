@@ -0,0 +1,18 @@
+package com.joaoac.cwm.dto;
+
+import java.util.List;
+
+/**
+ * Corpo do 400 de uma transação inválida: todas as violações, com código e campo.
+ */
+public record ValidationErrorResponse(List<Violation> errors) {
+
+    public static ValidationErrorResponse from(List<ValidationError> errors) {
+        return new ValidationErrorResponse(errors.stream()
+                .map(error -> new Violation(error.code().name(), error.field(), error.message()))
+                .toList());
+    }
+
+    public record Violation(String code, String field, String message) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Saldo de uma carteira dentro de um portfolio.
+ */
+public record WalletHoldings(Long walletId,
+                             String name,
+                             Map<String, BigDecimal> balances) {
+}
@@ -0,0 +1,10 @@
+package com.joaoac.cwm.dto;
+
+import java.util.List;
+
+/**
+ * Página de carteiras em ordem de ID; {@code next} é o parâmetro {@code after}
+ * da página seguinte ou nulo na última.
+ */
+public record WalletPage(List<WalletSummary> content, int size, Long next) {
+}
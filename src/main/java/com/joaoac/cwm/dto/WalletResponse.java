@@ -0,0 +1,20 @@
+package com.joaoac.cwm.dto;
+
+import java.time.LocalDateTime;
+
+import com.joaoac.cwm.model.Wallet;
+
+/**
+ * Representação de uma carteira nas respostas da API.
+ */
+public record WalletResponse(Long id,
+                             String name,
+                             String description,
+                             LocalDateTime createdAt,
+                             LocalDateTime updatedAt) {
+
+    public static WalletResponse from(Wallet wallet) {
+        return new WalletResponse(wallet.getId(), wallet.getName(), wallet.getDescription(),
+                wallet.getCreatedAt(), wallet.getUpdatedAt());
+    }
+}
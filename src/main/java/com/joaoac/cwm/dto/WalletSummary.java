@@ -0,0 +1,12 @@
+package com.joaoac.cwm.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Carteira na listagem: só as colunas exibidas e o número de transações.
+ */
+public record WalletSummary(Long id,
+                            String name,
+                            LocalDateTime updatedAt,
+                            long transactionCount) {
+}
@@ -0,0 +1,14 @@
+package com.joaoac.cwm.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Valor de mercado de uma carteira, com a data das cotações usadas.
+ */
+public record WalletValuation(Long walletId,
+                              BigDecimal totalValue,
+                              Instant pricedAt,
+                              List<PositionValuation> positions) {
+}
@@ -0,0 +1,30 @@
+package com.joaoac.cwm.enums;
+
+public enum CostBasisMethod {
+
+    FIFO("Primeiro a entrar, primeiro a sair"),
+    LIFO("Último a entrar, primeiro a sair"),
+    AVERAGE_COST("Custo médio ponderado");
+    private final String description;
+
+    CostBasisMethod(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // Converte o parâmetro da requisição
+    public static CostBasisMethod fromString(String method) {
+        if (method == null || method.trim().isEmpty()) {
+            return FIFO;
+        }
+        try {
+            return CostBasisMethod.valueOf(method.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Método de custo inválido: " + method +
+                ". Métodos válidos: FIFO, LIFO, AVERAGE_COST");
+        }
+    }
+}
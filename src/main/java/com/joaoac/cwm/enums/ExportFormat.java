@@ -0,0 +1,34 @@
+package com.joaoac.cwm.enums;
+
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+    public String getExtension() {
+        return extension;
+    }
+
+    // Converte o parâmetro da requisição
+    public static ExportFormat fromString(String format) {
+        if (format == null || format.trim().isEmpty()) {
+            return NDJSON;
+        }
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportação inválido: " + format +
+                ". Formatos válidos: NDJSON, CSV");
+        }
+    }
+}
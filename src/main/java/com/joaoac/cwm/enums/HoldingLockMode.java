@@ -0,0 +1,9 @@
+package com.joaoac.cwm.enums;
+
+public enum HoldingLockMode {
+
+    // Locks listrados em memória: serializa escritas por (carteira, criptomoeda) em um único nó
+    LOCAL,
+    // Advisory locks do PostgreSQL: serializa escritas entre vários nós
+    DATABASE
+}
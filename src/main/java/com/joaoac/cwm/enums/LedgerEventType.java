@@ -0,0 +1,17 @@
+package com.joaoac.cwm.enums;
+
+public enum LedgerEventType {
+
+    CREATED("Transação registrada"),
+    AMENDED("Transação alterada"),
+    VOIDED("Transação removida");
+    private final String description;
+
+    LedgerEventType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,29 @@
+package com.joaoac.cwm.enums;
+
+public enum NameMatch {
+
+    PREFIX("Nome começa com o filtro"),
+    CONTAINS("Nome contém o filtro");
+    private final String description;
+
+    NameMatch(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // Converte o parâmetro da requisição
+    public static NameMatch fromString(String match) {
+        if (match == null || match.trim().isEmpty()) {
+            return PREFIX;
+        }
+        try {
+            return NameMatch.valueOf(match.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de busca inválido: " + match +
+                ". Tipos válidos: PREFIX, CONTAINS");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.joaoac.cwm.enums;
+
+public enum ValidationErrorCode {
+
+    CRYPTOCURRENCY_REQUIRED("cryptocurrency", "Criptomoeda é obrigatória"),
+    UNSUPPORTED_CRYPTOCURRENCY("cryptocurrency", "Criptomoeda não suportada"),
+    TRANSACTION_TYPE_REQUIRED("transactionType", "Tipo de transação é obrigatório"),
+    INVALID_QUANTITY("quantity", "Quantidade deve ser maior que zero"),
+    INVALID_PRICE("pricePerUnit", "Preço por unidade deve ser maior que zero"),
+    FUTURE_DATE("transactionDate", "Data da transação não pode ser no futuro"),
+    NOTES_TOO_LONG("notes", "Notas devem ter no máximo 255 caracteres");
+
+    private final String field;
+    private final String description;
+
+    ValidationErrorCode(String field, String description) {
+        this.field = field;
+        this.description = description;
+    }
+
+    public String getField() {
+        return field;
+    }
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,61 @@
+package com.joaoac.cwm.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Supported cryptocurrency; transactions and holdings reference it by its smallint id
+@Entity(name = "assets")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_assets_symbol", columnNames = "symbol"))
+public class Asset {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+    @Column(nullable = false, length = 16)
+    private String symbol;
+    @Column(length = 100)
+    private String name;
+    // Inactive assets are rejected for new transactions but still resolve for existing rows
+    @Column(nullable = false)
+    private boolean active = true;
+
+    public Asset() {
+    }
+
+    public Asset(String symbol, String name) {
+        this.symbol = symbol;
+        this.name = name;
+    }
+
+    // Getters
+    public Short getId() {
+        return id;
+    }
+    public String getSymbol() {
+        return symbol;
+    }
+    public String getName() {
+        return name;
+    }
+    public boolean isActive() {
+        return active;
+    }
+
+    // Setters
+    public void setId(Short id) {
+        this.id = id;
+    }
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+    public void setName(String name) {
+        this.name = name;
+    }
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+}
@@ -0,0 +1,29 @@
+package com.joaoac.cwm.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+import com.joaoac.cwm.service.AssetRegistry;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores the cryptocurrency symbol as the asset's smallint id; instantiated by Hibernate through Spring
+@Converter
+public class AssetIdConverter implements AttributeConverter<String, Short> {
+
+    // Lazy: the registry reads the assets table, so it can't be created while the EntityManagerFactory is
+    @Lazy
+    @Autowired
+    private AssetRegistry assetRegistry;
+
+    @Override
+    public Short convertToDatabaseColumn(String symbol) {
+        return symbol == null ? null : assetRegistry.requireId(symbol);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short assetId) {
+        return assetId == null ? null : assetRegistry.requireSymbol(assetId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.joaoac.cwm.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// End-of-day quantity of one asset in one wallet, written only for days with activity in that asset
+@Entity(name = "balance_snapshots")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshots_wallet_asset_date",
+        columnNames = { "wallet_id", "asset_id", "snapshot_date" }),
+       indexes = @Index(name = "idx_balance_snapshots_wallet_date", columnList = "wallet_id, snapshot_date"))
+public class BalanceSnapshot {
+    // Pooled sequence so the backfill can batch its inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshots_seq")
+    @SequenceGenerator(name = "balance_snapshots_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "asset_id", nullable = false)
+    private String cryptocurrency;
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+    @Column(nullable = false)
+    private BigDecimal quantity;
+
+    public BalanceSnapshot() {
+    }
+
+    public BalanceSnapshot(Long walletId, String cryptocurrency, LocalDate snapshotDate, BigDecimal quantity) {
+        this.walletId = walletId;
+        this.cryptocurrency = cryptocurrency;
+        this.snapshotDate = snapshotDate;
+        this.quantity = quantity;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    public Long getWalletId() {
+        return walletId;
+    }
+    public String getCryptocurrency() {
+        return cryptocurrency;
+    }
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    public void setCryptocurrency(String cryptocurrency) {
+        this.cryptocurrency = cryptocurrency;
+    }
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+}
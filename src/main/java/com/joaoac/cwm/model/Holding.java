@@ -0,0 +1,75 @@
+package com.joaoac.cwm.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Current quantity of one cryptocurrency in one wallet, kept in sync by TransactionService
+@Entity(name = "holdings")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_holdings_wallet_asset",
+        columnNames = { "wallet_id", "asset_id" }))
+public class Holding {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "asset_id", nullable = false)
+    private String cryptocurrency;
+    @Column(nullable = false)
+    private BigDecimal quantity;
+    private LocalDateTime updatedAt;
+
+    public Holding() {
+    }
+
+    public Holding(Long walletId, String cryptocurrency, BigDecimal quantity) {
+        this.walletId = walletId;
+        this.cryptocurrency = cryptocurrency;
+        this.quantity = quantity;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    public Long getWalletId() {
+        return walletId;
+    }
+    public String getCryptocurrency() {
+        return cryptocurrency;
+    }
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public void setWalletId(Long walletId) {
+        this.walletId = walletId;
+    }
+    public void setCryptocurrency(String cryptocurrency) {
+        this.cryptocurrency = cryptocurrency;
+    }
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
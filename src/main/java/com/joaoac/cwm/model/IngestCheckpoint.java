@@ -0,0 +1,50 @@
+package com.joaoac.cwm.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+// Last journal sequence committed by an ingestion node; updated in the same transaction as the batch insert
+@Entity(name = "ingest_checkpoints")
+public class IngestCheckpoint {
+    @Id
+    @Column(length = 64)
+    private String node;
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public IngestCheckpoint() {
+    }
+
+    public IngestCheckpoint(String node, Long lastSequence, LocalDateTime updatedAt) {
+        this.node = node;
+        this.lastSequence = lastSequence;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public String getNode() {
+        return node;
+    }
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Setters
+    public void setNode(String node) {
+        this.node = node;
+    }
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,168 @@
+package com.joaoac.cwm.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.joaoac.cwm.enums.LedgerEventType;
+import com.joaoac.cwm.enums.TransactionType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Append-only record of a change to a transaction; (wallet_id, sequence_number) is the replay order.
+// Rows are never updated: an edit is a new AMENDED event carrying the previous values it replaces.
+@Entity(name = "ledger_events")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_ledger_events_wallet_sequence",
+        columnNames = { "wallet_id", "sequence_number" }))
+public class LedgerEvent {
+    // Pooled sequence so imports and ingestion batches can batch their inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_events_seq")
+    @SequenceGenerator(name = "ledger_events_seq", sequenceName = "ledger_events_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private Long walletId;
+    @Column(name = "sequence_number", nullable = false, updatable = false)
+    private long sequence;
+    @Column(name = "event_type", nullable = false, updatable = false)
+    private LedgerEventType eventType;
+    // No foreign key: the transaction row goes away on VOIDED, its history stays
+    @Column(name = "transaction_id", nullable = false, updatable = false)
+    private Long transactionId;
+
+    // State of the transaction after the event (before it, for VOIDED)
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "asset_id", nullable = false, updatable = false)
+    private String cryptocurrency;
+    @Column(name = "transaction_type", nullable = false, updatable = false)
+    private TransactionType transactionType;
+    @Column(nullable = false, updatable = false)
+    private BigDecimal quantity;
+    @Column(name = "price_per_unit", updatable = false)
+    private BigDecimal pricePerUnit;
+    @Column(name = "total_value", updatable = false)
+    private BigDecimal totalValue;
+    @Column(name = "transaction_date", updatable = false)
+    private LocalDateTime transactionDate;
+
+    // Values replaced by an AMENDED event, so replay can undo them without looking back
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "previous_asset_id", updatable = false)
+    private String previousCryptocurrency;
+    @Column(name = "previous_transaction_type", updatable = false)
+    private TransactionType previousTransactionType;
+    @Column(name = "previous_quantity", updatable = false)
+    private BigDecimal previousQuantity;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public LedgerEvent() {
+    }
+
+    public LedgerEvent(LedgerEventType eventType, Transaction transaction) {
+        this.eventType = eventType;
+        this.walletId = transaction.getWalletId();
+        this.transactionId = transaction.getId();
+        this.cryptocurrency = transaction.getCryptocurrency();
+        this.transactionType = transaction.getTransactionType();
+        this.quantity = transaction.getQuantity();
+        this.pricePerUnit = transaction.getPricePerUnit();
+        this.totalValue = transaction.getTotalValue();
+        this.transactionDate = transaction.getTransactionDate();
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    public static LedgerEvent created(Transaction transaction) {
+        return new LedgerEvent(LedgerEventType.CREATED, transaction);
+    }
+
+    public static LedgerEvent amended(Transaction previous, Transaction current) {
+        LedgerEvent event = new LedgerEvent(LedgerEventType.AMENDED, current);
+        event.previousCryptocurrency = previous.getCryptocurrency();
+        event.previousTransactionType = previous.getTransactionType();
+        event.previousQuantity = previous.getQuantity();
+        return event;
+    }
+
+    public static LedgerEvent voided(Transaction transaction) {
+        return new LedgerEvent(LedgerEventType.VOIDED, transaction);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    public Long getWalletId() {
+        return walletId;
+    }
+    public long getSequence() {
+        return sequence;
+    }
+    public LedgerEventType getEventType() {
+        return eventType;
+    }
+    public Long getTransactionId() {
+        return transactionId;
+    }
+    public String getCryptocurrency() {
+        return cryptocurrency;
+    }
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+    public BigDecimal getPricePerUnit() {
+        return pricePerUnit;
+    }
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+    public String getPreviousCryptocurrency() {
+        return previousCryptocurrency;
+    }
+    public TransactionType getPreviousTransactionType() {
+        return previousTransactionType;
+    }
+    public BigDecimal getPreviousQuantity() {
+        return previousQuantity;
+    }
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    // Setters
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    // Functions
+    // Quantity with the sign of its effect on the wallet balance (BUY adds, SELL subtracts)
+    public BigDecimal signedQuantity() {
+        return signed(transactionType, quantity);
+    }
+
+    // Signed quantity of the values an AMENDED event replaced
+    public BigDecimal previousSignedQuantity() {
+        return signed(previousTransactionType, previousQuantity);
+    }
+
+    private static BigDecimal signed(TransactionType type, BigDecimal quantity) {
+        if (quantity == null || type == null) {
+            return BigDecimal.ZERO;
+        }
+        return type == TransactionType.SELL ? quantity.negate() : quantity;
+    }
+}
@@ -0,0 +1,61 @@
+package com.joaoac.cwm.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Quantity of one asset after replaying a wallet's ledger up to sequence_number; zero rows are kept
+// so a snapshot always lists every asset the wallet has touched
+@Entity(name = "ledger_snapshots")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_ledger_snapshots_wallet_sequence_asset",
+        columnNames = { "wallet_id", "sequence_number", "asset_id" }))
+public class LedgerSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_snapshots_seq")
+    @SequenceGenerator(name = "ledger_snapshots_seq", sequenceName = "ledger_snapshots_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    @Column(name = "sequence_number", nullable = false)
+    private long sequence;
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "asset_id", nullable = false)
+    private String cryptocurrency;
+    @Column(nullable = false)
+    private BigDecimal quantity;
+
+    public LedgerSnapshot() {
+    }
+
+    public LedgerSnapshot(Long walletId, long sequence, String cryptocurrency, BigDecimal quantity) {
+        this.walletId = walletId;
+        this.sequence = sequence;
+        this.cryptocurrency = cryptocurrency;
+        this.quantity = quantity;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    public Long getWalletId() {
+        return walletId;
+    }
+    public long getSequence() {
+        return sequence;
+    }
+    public String getCryptocurrency() {
+        return cryptocurrency;
+    }
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+}
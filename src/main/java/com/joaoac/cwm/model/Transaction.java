@@ -3,21 +3,41 @@ package com.joaoac.cwm.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.joaoac.cwm.enums.TransactionType;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+// Indexes follow the access paths of TransactionRepository; (transaction_date, id) is the keyset order
 @Entity(name = "transactions")
+@Table(indexes = {
+    @Index(name = "idx_transactions_wallet_date", columnList = "wallet_id, transaction_date, id"),
+    @Index(name = "idx_transactions_wallet_crypto_date", columnList = "wallet_id, asset_id, transaction_date, id"),
+    @Index(name = "idx_transactions_wallet_type", columnList = "wallet_id, transaction_type, total_value"),
+    @Index(name = "idx_transactions_asset", columnList = "asset_id"),
+    @Index(name = "idx_transactions_date", columnList = "transaction_date, id")
+})
 public class Transaction {
+    // Sequence with pooled allocation keeps JDBC insert batching enabled (IDENTITY disables it)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
+    // Exposed as the symbol, stored as the asset's smallint id
+    @Convert(converter = AssetIdConverter.class)
+    @Column(name = "asset_id", nullable = false)
     private String cryptocurrency;
     private TransactionType transactionType;
     private BigDecimal quantity;
@@ -25,9 +45,14 @@ public class Transaction {
     private BigDecimal totalValue;
     private LocalDateTime transactionDate;
     private String notes;
+    // Optimistic lock: every update checks and bumps it; exposed to clients as the ETag
+    @JsonIgnore
+    @Version
+    private Long version;
 
-    // Relationship to Wallet
-    @ManyToOne
+    // Relationship to Wallet; lazy and not serialized, walletId already carries the key
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wallet_id")
     private Wallet wallet;
     @Column(name = "wallet_id", insertable = false, updatable = false)
@@ -58,6 +83,9 @@ public class Transaction {
     public String getNotes() {
         return notes;
     }
+    public Long getVersion() {
+        return version;
+    }
 
     // Setters
     public void setId(Long id) {
@@ -110,4 +138,12 @@ public class Transaction {
             this.totalValue = BigDecimal.ZERO;
         }
     }
+
+    // Quantity with the sign of its effect on the wallet balance (BUY adds, SELL subtracts)
+    public BigDecimal signedQuantity() {
+        if (this.quantity == null || this.transactionType == null) {
+            return BigDecimal.ZERO;
+        }
+        return this.transactionType == TransactionType.SELL ? this.quantity.negate() : this.quantity;
+    }
 }
@@ -3,22 +3,43 @@ package com.joaoac.cwm.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity(name = "wallets")
+@Table(indexes = @Index(name = "idx_wallets_search_name", columnList = "search_name, id"))
 public class Wallet {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     private String name;
+    // Lower-cased name for indexed search; derived from name on every write
+    @Column(name = "search_name")
+    private String searchName;
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Last ledger sequence handed out; only advanced by WalletRepository.advanceLedgerSequence
+    @JsonIgnore
+    @Column(name = "ledger_sequence", nullable = false, updatable = false)
+    private long ledgerSequence;
+    // Optimistic lock: every update checks and bumps it; exposed to clients as the ETag
+    @JsonIgnore
+    @Version
+    private Long version;
 
     // Getters
     public Long getId() {
@@ -27,6 +48,9 @@ public class Wallet {
     public String getName() {
         return name;
     }
+    public String getSearchName() {
+        return searchName;
+    }
     public String getDescription() {
         return description;
     }
@@ -36,6 +60,12 @@ public class Wallet {
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
+    public long getLedgerSequence() {
+        return ledgerSequence;
+    }
+    public Long getVersion() {
+        return version;
+    }
 
     // Setters
     public void setId(Long id) {
@@ -56,6 +86,16 @@ public class Wallet {
 
 
     // Functions
+    @PrePersist
+    @PreUpdate
+    public void updateSearchName() {
+        this.searchName = normalizeSearchName(this.name);
+    }
+
+    // Same normalization for stored names and search input
+    public static String normalizeSearchName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 
     public void addTransaction(Transaction transaction) {
         // Logic to add a transaction to the wallet
@@ -67,8 +107,4 @@ public class Wallet {
         // Logic to calculate the balance of the wallet
         return new HashMap<>();
     }
-    public BigDecimal getTotalInvested() {
-        // Logic to get the total amount invested in the wallet
-        return BigDecimal.ZERO;
-    }
 }
@@ -0,0 +1,13 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção da variação líquida de quantidade de uma criptomoeda em um período.
+ */
+public interface AssetDelta {
+
+    String getCryptocurrency();
+
+    BigDecimal getQuantity();
+}
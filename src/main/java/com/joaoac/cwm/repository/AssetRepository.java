@@ -0,0 +1,15 @@
+package com.joaoac.cwm.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.Asset;
+
+@Repository
+public interface AssetRepository extends JpaRepository<Asset, Short> {
+
+    // Buscar ativo pelo simbolo
+    Optional<Asset> findBySymbol(String symbol);
+}
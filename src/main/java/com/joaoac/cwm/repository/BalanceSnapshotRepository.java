@@ -0,0 +1,54 @@
+package com.joaoac.cwm.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.BalanceSnapshot;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    // Ultimo dia com snapshot da carteira (todos os dias ate ele estao consolidados)
+    @Query("SELECT MAX(s.snapshotDate) FROM balance_snapshots s WHERE s.walletId = :walletId")
+    Optional<LocalDate> findLatestDate(@Param("walletId") Long walletId);
+
+    // Ultimo dia com snapshot antes de uma data
+    @Query("SELECT MAX(s.snapshotDate) FROM balance_snapshots s " +
+           "WHERE s.walletId = :walletId AND s.snapshotDate < :date")
+    Optional<LocalDate> findLatestDateBefore(@Param("walletId") Long walletId, @Param("date") LocalDate date);
+
+    // Snapshot mais recente de cada criptomoeda ate uma data
+    @Query("SELECT s FROM balance_snapshots s WHERE s.walletId = :walletId AND s.snapshotDate = " +
+           "(SELECT MAX(s2.snapshotDate) FROM balance_snapshots s2 WHERE s2.walletId = s.walletId " +
+           "AND s2.cryptocurrency = s.cryptocurrency AND s2.snapshotDate <= :date)")
+    List<BalanceSnapshot> findLatestPerAsset(@Param("walletId") Long walletId, @Param("date") LocalDate date);
+
+    // Snapshots de um periodo, em ordem de data
+    List<BalanceSnapshot> findByWalletIdAndSnapshotDateBetweenOrderBySnapshotDate(Long walletId,
+                                                                                LocalDate startDate,
+                                                                                LocalDate endDate);
+
+    // Descartar snapshots a partir de uma data (escrita retroativa)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM balance_snapshots s WHERE s.walletId = :walletId AND s.snapshotDate >= :date")
+    int deleteFrom(@Param("walletId") Long walletId, @Param("date") LocalDate date);
+
+    // Deletar todos os snapshots de uma carteira
+    @Modifying
+    @Query("DELETE FROM balance_snapshots s WHERE s.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+
+    // Deletar um bloco de snapshots da carteira; repetido em transacoes curtas ate esvaziar
+    @Modifying
+    @Query(value = "DELETE FROM balance_snapshots WHERE id IN " +
+                   "(SELECT id FROM balance_snapshots WHERE wallet_id = :walletId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteChunkByWalletId(@Param("walletId") Long walletId, @Param("limit") int limit);
+}
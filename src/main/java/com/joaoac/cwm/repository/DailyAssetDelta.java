@@ -0,0 +1,16 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projeção da variação líquida de quantidade de uma criptomoeda em um dia.
+ */
+public interface DailyAssetDelta {
+
+    LocalDate getDay();
+
+    String getCryptocurrency();
+
+    BigDecimal getQuantity();
+}
@@ -0,0 +1,42 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.Holding;
+
+@Repository
+public interface HoldingRepository extends JpaRepository<Holding, Long>, HoldingRepositoryCustom {
+
+    // Buscar posicoes de uma carteira
+    List<Holding> findByWalletId(Long walletId);
+
+    // Verificar se a carteira tem alguma posicao
+    boolean existsByWalletId(Long walletId);
+
+    // Buscar posicoes de varias carteiras em uma consulta
+    List<Holding> findByWalletIdIn(Collection<Long> walletIds);
+
+    // Buscar as posicoes positivas de varias carteiras, so as colunas usadas no portfolio
+    @Query("SELECT h.walletId AS walletId, h.cryptocurrency AS cryptocurrency, h.quantity AS quantity " +
+           "FROM holdings h WHERE h.walletId IN :walletIds AND h.quantity > 0")
+    List<WalletAssetQuantity> findPositiveQuantities(@Param("walletIds") Collection<Long> walletIds);
+
+    // Buscar quantidade de uma criptomoeda na carteira
+    @Query("SELECT h.quantity FROM holdings h WHERE h.walletId = :walletId AND h.cryptocurrency = :cryptocurrency")
+    Optional<BigDecimal> findQuantity(@Param("walletId") Long walletId,
+                                      @Param("cryptocurrency") String cryptocurrency);
+
+    // Deletar todas as posicoes de uma carteira
+    @Modifying
+    @Query("DELETE FROM holdings h WHERE h.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+}
@@ -0,0 +1,10 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface HoldingRepositoryCustom {
+
+    // Somar (ou subtrair) quantidade na posicao, criando-a se nao existir, em um unico comando atomico
+    void upsertQuantity(Long walletId, String cryptocurrency, BigDecimal delta, LocalDateTime updatedAt);
+}
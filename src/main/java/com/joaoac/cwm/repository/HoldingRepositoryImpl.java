@@ -0,0 +1,71 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import com.joaoac.cwm.service.AssetRegistry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Upsert da posição em um único comando. Com UPDATE seguido de INSERT, dois
+ * escritores da mesma posição ainda inexistente atualizam zero linhas e ambos
+ * inserem, e um deles falha na uk_holdings_wallet_asset.
+ * PostgreSQL usa INSERT ... ON CONFLICT; o H2 de desenvolvimento, MERGE.
+ */
+public class HoldingRepositoryImpl implements HoldingRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO holdings (wallet_id, asset_id, quantity, updated_at) " +
+            "VALUES (:walletId, :assetId, :delta, :updatedAt) " +
+            "ON CONFLICT (wallet_id, asset_id) DO UPDATE " +
+            "SET quantity = holdings.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at";
+
+    private static final String MERGE_UPSERT =
+            "MERGE INTO holdings h " +
+            "USING (VALUES (CAST(:walletId AS BIGINT), CAST(:assetId AS SMALLINT), " +
+            "CAST(:delta AS NUMERIC(38, 2)), CAST(:updatedAt AS TIMESTAMP(6)))) " +
+            "s (wallet_id, asset_id, quantity, updated_at) " +
+            "ON h.wallet_id = s.wallet_id AND h.asset_id = s.asset_id " +
+            "WHEN MATCHED THEN UPDATE SET quantity = h.quantity + s.quantity, updated_at = s.updated_at " +
+            "WHEN NOT MATCHED THEN INSERT (wallet_id, asset_id, quantity, updated_at) " +
+            "VALUES (s.wallet_id, s.asset_id, s.quantity, s.updated_at)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AssetRegistry assetRegistry;
+    private final String upsertSql;
+
+    public HoldingRepositoryImpl(DataSource dataSource, AssetRegistry assetRegistry) {
+        this.assetRegistry = assetRegistry;
+        this.upsertSql = isPostgres(dataSource) ? POSTGRES_UPSERT : MERGE_UPSERT;
+    }
+
+    @Override
+    public void upsertQuantity(Long walletId, String cryptocurrency, BigDecimal delta, LocalDateTime updatedAt) {
+        // Comando nativo: o Hibernate descarrega a sessão antes de executá-lo
+        entityManager.createNativeQuery(upsertSql)
+                .setParameter("walletId", walletId)
+                .setParameter("assetId", assetRegistry.requireId(cryptocurrency))
+                .setParameter("delta", delta)
+                .setParameter("updatedAt", updatedAt)
+                .executeUpdate();
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Não foi possível identificar o banco de dados", e);
+        }
+    }
+}
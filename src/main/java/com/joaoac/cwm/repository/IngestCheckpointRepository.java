@@ -0,0 +1,10 @@
+package com.joaoac.cwm.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.IngestCheckpoint;
+
+@Repository
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpoint, String> {
+}
@@ -0,0 +1,45 @@
+package com.joaoac.cwm.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.LedgerEvent;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    // Pagina de eventos da carteira a partir de uma sequencia
+    @Query("SELECT e FROM ledger_events e WHERE e.walletId = :walletId AND e.sequence > :after ORDER BY e.sequence")
+    List<LedgerEvent> findAfter(@Param("walletId") Long walletId, @Param("after") long after, Pageable pageable);
+
+    // Eventos posteriores a uma sequencia, em ordem de replay; lidos sob demanda do cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM ledger_events e WHERE e.walletId = :walletId AND e.sequence > :after ORDER BY e.sequence")
+    Stream<LedgerEvent> streamAfter(@Param("walletId") Long walletId, @Param("after") long after);
+
+    // Deletar todos os eventos de uma carteira
+    @Modifying
+    @Query("DELETE FROM ledger_events e WHERE e.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+
+    // Deletar um bloco de eventos da carteira; repetido em transacoes curtas ate esvaziar
+    @Modifying
+    @Query(value = "DELETE FROM ledger_events WHERE id IN " +
+                   "(SELECT id FROM ledger_events WHERE wallet_id = :walletId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteChunkByWalletId(@Param("walletId") Long walletId, @Param("limit") int limit);
+}
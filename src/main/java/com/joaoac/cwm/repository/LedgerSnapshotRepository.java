@@ -0,0 +1,31 @@
+package com.joaoac.cwm.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.joaoac.cwm.model.LedgerSnapshot;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+
+    // Linhas do snapshot mais recente da carteira (uma por criptomoeda), em uma unica consulta
+    // para nao ler a sequencia de um snapshot que outra execucao acabou de substituir
+    @Query("SELECT s FROM ledger_snapshots s WHERE s.walletId = :walletId AND s.sequence = " +
+           "(SELECT MAX(s2.sequence) FROM ledger_snapshots s2 WHERE s2.walletId = :walletId)")
+    List<LedgerSnapshot> findLatest(@Param("walletId") Long walletId);
+
+    // Descartar os snapshots anteriores a uma sequencia
+    @Modifying
+    @Query("DELETE FROM ledger_snapshots s WHERE s.walletId = :walletId AND s.sequence < :sequence")
+    int deleteBefore(@Param("walletId") Long walletId, @Param("sequence") long sequence);
+
+    // Deletar todos os snapshots de uma carteira
+    @Modifying
+    @Query("DELETE FROM ledger_snapshots s WHERE s.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+}
@@ -0,0 +1,20 @@
+package com.joaoac.cwm.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais das listagens de transações; campos nulos não restringem a busca.
+ */
+public record TransactionFilter(Long walletId,
+                                String cryptocurrency,
+                                LocalDateTime startDate,
+                                LocalDateTime endDate) {
+
+    public static TransactionFilter all() {
+        return new TransactionFilter(null, null, null, null);
+    }
+
+    public static TransactionFilter byWallet(Long walletId) {
+        return new TransactionFilter(walletId, null, null, null);
+    }
+}
@@ -1,16 +1,22 @@
 package com.joaoac.cwm.repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.joaoac.cwm.dto.TransactionResponse;
 import com.joaoac.cwm.enums.TransactionType;
 import com.joaoac.cwm.model.Transaction;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
 
     // Buscar transacoes por carteira
     List<Transaction> findByWalletId(Long walletId);
@@ -35,15 +41,74 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Buscar transacoes por data ordenada (mais recente primeiro)
     List<Transaction> findByWalletIdOrderByTransactionDateDesc(Long walletId);
 
+    // Buscar a transacao mais recente da carteira (projecao, sem entidade gerenciada)
+    Optional<TransactionResponse> findFirstByWalletIdOrderByTransactionDateDescIdDesc(Long walletId);
+
     // Buscar transacoes de compra de uma criptomoeda especifica
     List<Transaction> findByWalletIdAndCryptocurrencyAndTransactionType(Long walletId, 
                                                                        String cryptocurrency, 
                                                                        TransactionType transactionType);
 
+    // Contar e somar valor total das transacoes por tipo, em uma unica consulta agregada
+    @Query("SELECT t.transactionType AS transactionType, COUNT(t) AS transactionCount, SUM(t.totalValue) AS totalValue " +
+           "FROM transactions t WHERE t.walletId = :walletId GROUP BY t.transactionType")
+    List<TransactionTypeTotals> sumByTransactionType(@Param("walletId") Long walletId);
+
+    // Somar valor total das transacoes de um tipo na carteira
+    @Query("SELECT SUM(t.totalValue) FROM transactions t " +
+           "WHERE t.walletId = :walletId AND t.transactionType = :transactionType")
+    BigDecimal sumTotalValue(@Param("walletId") Long walletId,
+                             @Param("transactionType") TransactionType transactionType);
+
+    // Variacao liquida por dia e criptomoeda em [start, end), vendas negativas
+    @Query("SELECT CAST(t.transactionDate AS LocalDate) AS day, t.cryptocurrency AS cryptocurrency, " +
+           "SUM(CASE WHEN t.transactionType = :sell THEN -t.quantity ELSE t.quantity END) AS quantity " +
+           "FROM transactions t WHERE t.walletId = :walletId " +
+           "AND t.transactionDate >= :start AND t.transactionDate < :end " +
+           "GROUP BY CAST(t.transactionDate AS LocalDate), t.cryptocurrency " +
+           "ORDER BY CAST(t.transactionDate AS LocalDate)")
+    List<DailyAssetDelta> sumDailyDeltas(@Param("walletId") Long walletId,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("sell") TransactionType sell);
+
+    // Variacao liquida por criptomoeda em [start, end], vendas negativas
+    @Query("SELECT t.cryptocurrency AS cryptocurrency, " +
+           "SUM(CASE WHEN t.transactionType = :sell THEN -t.quantity ELSE t.quantity END) AS quantity " +
+           "FROM transactions t WHERE t.walletId = :walletId " +
+           "AND t.transactionDate >= :start AND t.transactionDate <= :end GROUP BY t.cryptocurrency")
+    List<AssetDelta> sumDeltas(@Param("walletId") Long walletId,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               @Param("sell") TransactionType sell);
+
+    // Quantidade liquida por criptomoeda em todo o historico, vendas negativas
+    @Query("SELECT t.cryptocurrency AS cryptocurrency, " +
+           "SUM(CASE WHEN t.transactionType = :sell THEN -t.quantity ELSE t.quantity END) AS quantity " +
+           "FROM transactions t WHERE t.walletId = :walletId GROUP BY t.cryptocurrency")
+    List<AssetDelta> sumQuantities(@Param("walletId") Long walletId, @Param("sell") TransactionType sell);
+
+    // Data da primeira transacao da carteira a partir de um instante
+    @Query("SELECT MIN(t.transactionDate) FROM transactions t " +
+           "WHERE t.walletId = :walletId AND t.transactionDate >= :start")
+    Optional<LocalDateTime> findFirstTransactionDate(@Param("walletId") Long walletId,
+                                                     @Param("start") LocalDateTime start);
+
     // Contar transacoes por carteira
     long countByWalletId(Long walletId);
 
+    // Verificar se a carteira tem transacoes (LIMIT 1, sem carregar entidades)
+    boolean existsByWalletId(Long walletId);
+
+    // Deletar todas as transacoes de uma carteira em um unico DELETE (sem carregar entidades)
+    @Modifying
+    @Query("DELETE FROM transactions t WHERE t.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
 
-    // Deletar todas as transacoes de uma carteira
-    void deleteByWalletId(Long walletId);
+    // Deletar um bloco de transacoes da carteira; repetido em transacoes curtas ate esvaziar
+    @Modifying
+    @Query(value = "DELETE FROM transactions WHERE id IN " +
+                   "(SELECT id FROM transactions WHERE wallet_id = :walletId LIMIT :limit)",
+           nativeQuery = true)
+    int deleteChunkByWalletId(@Param("walletId") Long walletId, @Param("limit") int limit);
 }
@@ -0,0 +1,18 @@
+package com.joaoac.cwm.repository;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import com.joaoac.cwm.dto.TransactionCursor;
+import com.joaoac.cwm.dto.TransactionResponse;
+
+public interface TransactionRepositoryCustom {
+
+    // Buscar uma fatia de transacoes ordenada por (transactionDate, id) a partir de um cursor
+    Slice<TransactionResponse> findSlice(TransactionFilter filter, TransactionCursor after, Sort.Direction direction, int size);
+
+    // Percorrer as transacoes filtradas em ordem cronologica com cursor do banco (exige transacao aberta)
+    Stream<TransactionResponse> streamAll(TransactionFilter filter, int fetchSize);
+}
@@ -0,0 +1,94 @@
+package com.joaoac.cwm.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.joaoac.cwm.dto.TransactionCursor;
+import com.joaoac.cwm.dto.TransactionResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Consultas filtradas de transações ordenadas pela chave (transactionDate, id).
+ * A paginação é por keyset: a página seguinte começa depois da última chave
+ * lida, sem OFFSET e sem contagem total.
+ */
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TransactionResponse> findSlice(TransactionFilter filter, TransactionCursor after,
+                                                Sort.Direction direction, int size) {
+        // Uma linha extra indica se existe página seguinte
+        List<TransactionResponse> rows = createQuery(filter, after, direction)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        List<TransactionResponse> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, direction, "transactionDate", "id"), hasNext);
+    }
+
+    @Override
+    public Stream<TransactionResponse> streamAll(TransactionFilter filter, int fetchSize) {
+        return createQuery(filter, null, Sort.Direction.ASC)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    // Expressão de construtor: seleciona só as colunas do DTO, sem entidades gerenciadas
+    private TypedQuery<TransactionResponse> createQuery(TransactionFilter filter, TransactionCursor after,
+                                                        Sort.Direction direction) {
+        String comparison = direction.isAscending() ? ">" : "<";
+        String order = direction.isAscending() ? "ASC" : "DESC";
+
+        StringBuilder jpql = new StringBuilder("SELECT new com.joaoac.cwm.dto.TransactionResponse(" +
+                "t.id, t.walletId, t.cryptocurrency, t.transactionType, t.quantity, t.pricePerUnit, " +
+                "t.totalValue, t.transactionDate, t.notes) FROM transactions t WHERE 1 = 1");
+        if (filter.walletId() != null) {
+            jpql.append(" AND t.walletId = :walletId");
+        }
+        if (filter.cryptocurrency() != null) {
+            jpql.append(" AND t.cryptocurrency = :cryptocurrency");
+        }
+        if (filter.startDate() != null) {
+            jpql.append(" AND t.transactionDate >= :startDate");
+        }
+        if (filter.endDate() != null) {
+            jpql.append(" AND t.transactionDate <= :endDate");
+        }
+        if (after != null) {
+            jpql.append(" AND (t.transactionDate ").append(comparison).append(" :cursorDate")
+                .append(" OR (t.transactionDate = :cursorDate AND t.id ").append(comparison).append(" :cursorId))");
+        }
+        jpql.append(" ORDER BY t.transactionDate ").append(order).append(", t.id ").append(order);
+
+        TypedQuery<TransactionResponse> query = entityManager.createQuery(jpql.toString(), TransactionResponse.class);
+        if (filter.walletId() != null) {
+            query.setParameter("walletId", filter.walletId());
+        }
+        if (filter.cryptocurrency() != null) {
+            query.setParameter("cryptocurrency", filter.cryptocurrency());
+        }
+        if (filter.startDate() != null) {
+            query.setParameter("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            query.setParameter("endDate", filter.endDate());
+        }
+        if (after != null) {
+            query.setParameter("cursorDate", after.transactionDate());
+            query.setParameter("cursorId", after.id());
+        }
+        return query;
+    }
+}
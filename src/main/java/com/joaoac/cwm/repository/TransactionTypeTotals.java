@@ -0,0 +1,17 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+
+import com.joaoac.cwm.enums.TransactionType;
+
+/**
+ * Projeção do agrupamento de transações por tipo.
+ */
+public interface TransactionTypeTotals {
+
+    TransactionType getTransactionType();
+
+    long getTransactionCount();
+
+    BigDecimal getTotalValue();
+}
@@ -0,0 +1,15 @@
+package com.joaoac.cwm.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção da quantidade de uma criptomoeda em uma carteira.
+ */
+public interface WalletAssetQuantity {
+
+    Long getWalletId();
+
+    String getCryptocurrency();
+
+    BigDecimal getQuantity();
+}
@@ -0,0 +1,11 @@
+package com.joaoac.cwm.repository;
+
+/**
+ * Projeção do ID e do nome de uma carteira.
+ */
+public interface WalletName {
+
+    Long getId();
+
+    String getName();
+}
@@ -1,21 +1,86 @@
 package com.joaoac.cwm.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.joaoac.cwm.dto.WalletSummary;
 import com.joaoac.cwm.model.Wallet;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
 
-    // Buscar carteira por nome
-    List<Wallet> findByNameContainingIgnoreCase(String name);
+    // Listar carteiras a partir de um ID, com o numero de transacoes na mesma consulta
+    @Query("SELECT new com.joaoac.cwm.dto.WalletSummary(w.id, w.name, w.updatedAt, " +
+           "(SELECT COUNT(t) FROM transactions t WHERE t.walletId = w.id)) " +
+           "FROM wallets w WHERE w.id > :after ORDER BY w.id")
+    List<WalletSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    // Mesma listagem filtrada pelo nome normalizado (padrao LIKE ja escapado)
+    @Query("SELECT new com.joaoac.cwm.dto.WalletSummary(w.id, w.name, w.updatedAt, " +
+           "(SELECT COUNT(t) FROM transactions t WHERE t.walletId = w.id)) " +
+           "FROM wallets w WHERE w.searchName LIKE :pattern ESCAPE '\\' AND w.id > :after ORDER BY w.id")
+    List<WalletSummary> findSummariesBySearchNameLike(@Param("pattern") String pattern,
+                                                      @Param("after") Long after,
+                                                      Pageable pageable);
+
+    // ID e nome das carteiras cujo nome normalizado contem o filtro (indice de trigramas no Postgres),
+    // ate o limite informado
+    List<WalletName> findBySearchNameContainingOrderById(String searchName, Limit limit);
+
+    // ID e nome das carteiras informadas
+    List<WalletName> findByIdIn(Collection<Long> ids);
+
+    // ID e nome das carteiras informadas cujo nome normalizado contem o filtro
+    List<WalletName> findByIdInAndSearchNameContaining(Collection<Long> ids, String searchName);
 
     // Verificar se existe por nome
     boolean existsByName(String name);
 
-    
-    
+    // Travar a carteira (SELECT ... FOR UPDATE) ate o fim da transacao
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM wallets w WHERE w.id = :id")
+    Optional<Wallet> findByIdForUpdate(@Param("id") Long id);
+
+    // Listar IDs em ordem, a partir de um ID (paginacao por chave)
+    @Query("SELECT w.id FROM wallets w WHERE w.id > :after ORDER BY w.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    // IDs das carteiras com transacoes e sem nenhuma posicao (holdings nunca preenchidas)
+    @Query("SELECT w.id FROM wallets w WHERE w.id > :after " +
+           "AND EXISTS (SELECT 1 FROM transactions t WHERE t.walletId = w.id) " +
+           "AND NOT EXISTS (SELECT 1 FROM holdings h WHERE h.walletId = w.id) ORDER BY w.id")
+    List<Long> findIdsMissingHoldings(@Param("after") Long after, Pageable pageable);
+
+    // Filtrar os IDs que existem
+    @Query("SELECT w.id FROM wallets w WHERE w.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Reservar as proximas sequencias do ledger; o UPDATE trava a linha ate o commit,
+    // entao os eventos de uma carteira sao gravados um lote por vez, na ordem das sequencias
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE wallets w SET w.ledgerSequence = w.ledgerSequence + :count WHERE w.id = :id")
+    int advanceLedgerSequence(@Param("id") Long id, @Param("count") long count);
+
+    // Ultima sequencia reservada do ledger
+    @Query("SELECT w.ledgerSequence FROM wallets w WHERE w.id = :id")
+    Optional<Long> findLedgerSequence(@Param("id") Long id);
+
+    // IDs das carteiras com ao menos :interval eventos desde o ultimo snapshot do ledger
+    @Query("SELECT w.id FROM wallets w WHERE w.id > :after AND w.ledgerSequence - " +
+           "COALESCE((SELECT MAX(s.sequence) FROM ledger_snapshots s WHERE s.walletId = w.id), 0) >= :interval " +
+           "ORDER BY w.id")
+    List<Long> findIdsNeedingLedgerSnapshot(@Param("after") Long after, @Param("interval") long interval,
+                                            Pageable pageable);
 }
@@ -0,0 +1,88 @@
+package com.joaoac.cwm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import com.joaoac.cwm.model.Asset;
+
+/**
+ * Índice imutável dos ativos, por id e por símbolo. A busca por símbolo ignora
+ * maiúsculas/minúsculas sem criar strings: o hash é calculado sobre os
+ * caracteres já convertidos e a tabela (endereçamento aberto) devolve o ativo.
+ */
+final class AssetIndex {
+
+    static final AssetIndex EMPTY = new AssetIndex(List.of());
+
+    private final Asset[] byId;
+    private final Asset[] bySymbol;
+    private final List<Asset> assets;
+    private final List<String> activeSymbols;
+
+    AssetIndex(Collection<Asset> source) {
+        List<Asset> sorted = new ArrayList<>(source);
+        sorted.sort(Comparator.comparing(Asset::getId));
+        this.assets = List.copyOf(sorted);
+        this.activeSymbols = sorted.stream().filter(Asset::isActive).map(Asset::getSymbol).toList();
+
+        int maxId = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).getId();
+        this.byId = new Asset[maxId + 1];
+
+        // Potência de 2 com ao menos o dobro de posições, para manter as sondagens curtas
+        this.bySymbol = new Asset[Math.max(16, Integer.highestOneBit(Math.max(sorted.size(), 1) * 4))];
+        for (Asset asset : sorted) {
+            byId[asset.getId()] = asset;
+            int slot = hash(asset.getSymbol()) & (bySymbol.length - 1);
+            while (bySymbol[slot] != null) {
+                slot = (slot + 1) & (bySymbol.length - 1);
+            }
+            bySymbol[slot] = asset;
+        }
+    }
+
+    Asset find(CharSequence symbol) {
+        int slot = hash(symbol) & (bySymbol.length - 1);
+        Asset candidate;
+        while ((candidate = bySymbol[slot]) != null) {
+            if (equalsIgnoreCase(candidate.getSymbol(), symbol)) {
+                return candidate;
+            }
+            slot = (slot + 1) & (bySymbol.length - 1);
+        }
+        return null;
+    }
+
+    Asset find(short id) {
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    List<Asset> assets() {
+        return assets;
+    }
+
+    List<String> activeSymbols() {
+        return activeSymbols;
+    }
+
+    private static int hash(CharSequence symbol) {
+        int h = 0;
+        for (int i = 0; i < symbol.length(); i++) {
+            h = 31 * h + Character.toUpperCase(symbol.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String canonical, CharSequence symbol) {
+        if (canonical.length() != symbol.length()) {
+            return false;
+        }
+        for (int i = 0; i < canonical.length(); i++) {
+            if (canonical.charAt(i) != Character.toUpperCase(symbol.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,143 @@
+package com.joaoac.cwm.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.joaoac.cwm.model.Asset;
+import com.joaoac.cwm.repository.AssetRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Registro dos ativos suportados, carregado da tabela assets em um índice
+ * imutável. A recarga monta um novo índice e o publica de uma vez, então as
+ * leituras nunca veem um estado parcial e não precisam de lock.
+ */
+@Component
+public class AssetRegistry {
+
+    // Ativos cadastrados quando a tabela está vazia (H2 de desenvolvimento; em produção vêm da migração)
+    static final List<String> DEFAULT_SYMBOLS = List.of(
+            "BTC", "ETH", "BNB", "ADA", "XRP", "SOL", "DOT", "DOGE", "AVAX", "MATIC",
+            "LTC", "BCH", "LINK", "UNI", "ATOM", "XLM", "VET", "FIL", "TRX", "ETC"
+    );
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    private final AtomicReference<AssetIndex> index = new AtomicReference<>(AssetIndex.EMPTY);
+
+    // ReentrantLock em vez de synchronized: não fixa threads virtuais durante a recarga
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void initialize() {
+        if (assetRepository.count() == 0) {
+            assetRepository.saveAll(DEFAULT_SYMBOLS.stream().map(symbol -> new Asset(symbol, symbol)).toList());
+        }
+        refresh();
+    }
+
+    /**
+     * Recarregar o índice a partir do banco
+     */
+    @Scheduled(fixedDelayString = "${cwm.assets.refresh-interval:60s}",
+               initialDelayString = "${cwm.assets.refresh-interval:60s}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            index.set(new AssetIndex(assetRepository.findAll()));
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Substituir o índice pelos ativos informados, sem consultar o banco
+     */
+    public void replace(List<Asset> assets) {
+        index.set(new AssetIndex(assets));
+    }
+
+    /**
+     * Cadastrar ou atualizar um ativo e recarregar o índice
+     */
+    public Asset save(Asset asset) {
+        if (asset.getSymbol() == null || asset.getSymbol().isBlank()) {
+            throw new RuntimeException("Símbolo do ativo é obrigatório");
+        }
+        String symbol = asset.getSymbol().trim().toUpperCase();
+        if (symbol.length() > 16) {
+            throw new RuntimeException("Símbolo deve ter no máximo 16 caracteres");
+        }
+
+        Asset target = assetRepository.findBySymbol(symbol).orElseGet(Asset::new);
+        target.setSymbol(symbol);
+        target.setName(asset.getName() != null ? asset.getName() : symbol);
+        target.setActive(asset.isActive());
+
+        Asset saved = assetRepository.save(target);
+        refresh();
+        return saved;
+    }
+
+    /**
+     * Símbolo canônico de um ativo ativo, ou null se não for suportado
+     */
+    public String lookupActive(CharSequence symbol) {
+        Asset asset = index.get().find(symbol);
+        return asset != null && asset.isActive() ? asset.getSymbol() : null;
+    }
+
+    /**
+     * Se o símbolo é de um ativo registrado, ativo ou não
+     */
+    public boolean isRegistered(CharSequence symbol) {
+        return index.get().find(symbol) != null;
+    }
+
+    /**
+     * Id do ativo, para gravação
+     */
+    public Short requireId(String symbol) {
+        Asset asset = index.get().find(symbol);
+        if (asset == null) {
+            throw new IllegalArgumentException("Criptomoeda não suportada: " + symbol);
+        }
+        return asset.getId();
+    }
+
+    /**
+     * Símbolo do ativo, para leitura; recarrega uma vez se o id for de um ativo novo
+     */
+    public String requireSymbol(Short id) {
+        Asset asset = index.get().find(id);
+        if (asset == null) {
+            refresh();
+            asset = index.get().find(id);
+        }
+        if (asset == null) {
+            throw new IllegalStateException("Ativo não encontrado com ID: " + id);
+        }
+        return asset.getSymbol();
+    }
+
+    /**
+     * Símbolos aceitos em novas transações
+     */
+    public List<String> getActiveSymbols() {
+        return index.get().activeSymbols();
+    }
+
+    /**
+     * Todos os ativos cadastrados, inclusive inativos
+     */
+    public List<Asset> getAssets() {
+        return index.get().assets();
+    }
+}
@@ -0,0 +1,93 @@
+package com.joaoac.cwm.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Asset;
+import com.joaoac.cwm.repository.HoldingRepository;
+import com.joaoac.cwm.repository.TransactionRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Preenche, na inicialização, as posições das carteiras que têm transações mas
+ * nenhuma linha em holdings. Saldo e conferência de venda leem só a tabela de
+ * posições: sem o preenchimento, essas carteiras teriam saldo zero e toda
+ * venda seria recusada. Em produção a migração V2 cria e preenche a tabela;
+ * isto cobre bancos que chegam ao schema sem executá-la (baseline do Flyway
+ * posterior à V2, restauração de backup antigo, H2 persistente).
+ */
+@Component
+public class HoldingBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingBackfill.class);
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    @Autowired
+    private AssetRegistry assetRegistry;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Value("${cwm.holdings.backfill-chunk:500}")
+    private int walletChunk;
+
+    @PostConstruct
+    public void run() {
+        int filled = 0;
+        Long after = 0L;
+        List<Long> walletIds;
+        while (!(walletIds = walletRepository.findIdsMissingHoldings(after, PageRequest.of(0, walletChunk))).isEmpty()) {
+            for (Long walletId : walletIds) {
+                if (fill(walletId)) {
+                    filled++;
+                }
+            }
+            after = walletIds.get(walletIds.size() - 1);
+        }
+        if (filled > 0) {
+            log.info("Posições preenchidas a partir do histórico em {} carteiras", filled);
+        }
+    }
+
+    // Todas as posições da carteira travadas: nenhuma escrita entra entre a soma e a gravação
+    private boolean fill(Long walletId) {
+        List<String> cryptocurrencies = assetRegistry.getAssets().stream().map(Asset::getSymbol).toList();
+        boolean filled = holdingLockManager.executeLocked(walletId, cryptocurrencies, () -> {
+            // Outra instância pode ter preenchido ou gravado a carteira desde a consulta
+            if (walletRepository.findByIdForUpdate(walletId).isEmpty()
+                    || holdingRepository.existsByWalletId(walletId)) {
+                return false;
+            }
+            transactionRepository.sumQuantities(walletId, TransactionType.SELL).forEach(
+                    delta -> holdingService.adjust(walletId, delta.getCryptocurrency(), delta.getQuantity()));
+            return true;
+        });
+        if (filled) {
+            walletCache.invalidate(walletId);
+        }
+        return filled;
+    }
+}
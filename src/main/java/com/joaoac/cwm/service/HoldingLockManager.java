@@ -0,0 +1,101 @@
+package com.joaoac.cwm.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.joaoac.cwm.enums.HoldingLockMode;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Serializa as escritas que alteram uma posição (carteira, criptomoeda),
+ * sem bloquear escritas de outras posições.
+ * O lock é mantido até o commit, para que a verificação de saldo e a
+ * gravação formem uma única operação.
+ */
+@Component
+public class HoldingLockManager {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final HoldingLockMode lockMode;
+    private final ReentrantLock[] stripes;
+
+    public HoldingLockManager(PlatformTransactionManager transactionManager,
+                              @Value("${cwm.holdings.lock-mode:LOCAL}") HoldingLockMode lockMode,
+                              @Value("${cwm.holdings.lock-stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("cwm.holdings.lock-stripes deve ser maior que zero");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockMode = lockMode;
+        // ReentrantLock em vez de synchronized: não fixa threads virtuais durante a espera
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Executar uma operação em transação, com lock exclusivo sobre as posições informadas
+     */
+    public <T> T executeLocked(Long walletId, Collection<String> cryptocurrencies, Supplier<T> work) {
+        return executeLocked(Map.of(walletId, cryptocurrencies), work);
+    }
+
+    /**
+     * Executar uma operação em transação, com lock exclusivo sobre as posições de várias carteiras
+     */
+    public <T> T executeLocked(Map<Long, ? extends Collection<String>> positions, Supplier<T> work) {
+        TreeSet<Long> keys = new TreeSet<>();
+        positions.forEach((walletId, cryptocurrencies) -> keys.addAll(lockKeys(walletId, cryptocurrencies)));
+
+        if (lockMode == HoldingLockMode.DATABASE) {
+            return transactionTemplate.execute(status -> {
+                // Ordem fixa de aquisição evita deadlock entre operações com mais de uma posição
+                for (Long key : keys) {
+                    entityManager.createNativeQuery("SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(:key)) l")
+                            .setParameter("key", key)
+                            .getSingleResult();
+                }
+                return work.get();
+            });
+        }
+
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Long key : keys) {
+            stripeIndexes.add(Math.floorMod(Long.hashCode(key), stripes.length));
+        }
+
+        for (Integer index : stripeIndexes) {
+            stripes[index].lock();
+        }
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            for (Integer index : stripeIndexes.descendingSet()) {
+                stripes[index].unlock();
+            }
+        }
+    }
+
+    // Chave de 64 bits por posição; colisões apenas serializam posições distintas
+    private TreeSet<Long> lockKeys(Long walletId, Collection<String> cryptocurrencies) {
+        TreeSet<Long> keys = new TreeSet<>();
+        for (String cryptocurrency : cryptocurrencies) {
+            keys.add((walletId << 32) ^ (cryptocurrency.hashCode() & 0xffffffffL));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,74 @@
+package com.joaoac.cwm.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.joaoac.cwm.model.Holding;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.repository.HoldingRepository;
+
+/**
+ * Mantém a tabela de posições (holdings) por carteira e criptomoeda.
+ * Os métodos de escrita devem ser chamados dentro da mesma transação
+ * que grava a {@link Transaction}.
+ */
+@Service
+public class HoldingService {
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    /**
+     * Aplicar o efeito de uma transação na posição
+     */
+    public void apply(Transaction transaction) {
+        adjust(transaction.getWalletId(), transaction.getCryptocurrency(), transaction.signedQuantity());
+    }
+
+    /**
+     * Desfazer o efeito de uma transação na posição
+     */
+    public void revert(Transaction transaction) {
+        adjust(transaction.getWalletId(), transaction.getCryptocurrency(), transaction.signedQuantity().negate());
+    }
+
+    /**
+     * Somar uma variação de quantidade à posição, criando-a se necessário
+     */
+    public void adjust(Long walletId, String cryptocurrency, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        holdingRepository.upsertQuantity(walletId, cryptocurrency, delta, LocalDateTime.now());
+    }
+
+    /**
+     * Buscar quantidade atual de uma criptomoeda na carteira
+     */
+    public BigDecimal getQuantity(Long walletId, String cryptocurrency) {
+        return holdingRepository.findQuantity(walletId, cryptocurrency).orElse(BigDecimal.ZERO);
+    }
+
+    /**
+     * Buscar todas as quantidades da carteira, por criptomoeda
+     */
+    public Map<String, BigDecimal> getQuantities(Long walletId) {
+        Map<String, BigDecimal> quantities = new HashMap<>();
+        for (Holding holding : holdingRepository.findByWalletId(walletId)) {
+            quantities.put(holding.getCryptocurrency(), holding.getQuantity());
+        }
+        return quantities;
+    }
+
+    /**
+     * Remover as posições de uma carteira
+     */
+    public void deleteByWalletId(Long walletId) {
+        holdingRepository.deleteByWalletId(walletId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.joaoac.cwm.service;
+
+import com.joaoac.cwm.model.Transaction;
+
+/**
+ * Linha lida do corpo da importação: a transação convertida ou o erro de leitura.
+ */
+public record ImportRow(int row, Transaction transaction, String error) {
+
+    public static ImportRow parsed(int row, Transaction transaction) {
+        return new ImportRow(row, transaction, null);
+    }
+
+    public static ImportRow failed(int row, String error) {
+        return new ImportRow(row, null, error);
+    }
+}
@@ -0,0 +1,90 @@
+package com.joaoac.cwm.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.joaoac.cwm.dto.PortfolioResponse;
+import com.joaoac.cwm.dto.WalletHoldings;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.HoldingRepository;
+import com.joaoac.cwm.repository.WalletAssetQuantity;
+import com.joaoac.cwm.repository.WalletName;
+import com.joaoac.cwm.repository.WalletRepository;
+
+/**
+ * Saldo consolidado de várias carteiras em uma requisição: uma consulta
+ * seleciona as carteiras e outra traz as posições de todas elas, em vez de
+ * uma consulta de saldo por carteira.
+ */
+@Service
+public class PortfolioService {
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Value("${cwm.portfolio.max-wallets:1000}")
+    private int maxWallets;
+
+    /**
+     * Montar o portfolio das carteiras informadas e/ou cujo nome contém o filtro;
+     * IDs inexistentes são ignorados
+     */
+    public PortfolioResponse getPortfolio(Collection<Long> walletIds, String name) {
+        boolean byIds = walletIds != null && !walletIds.isEmpty();
+        boolean byName = name != null && !name.isBlank();
+        if (!byIds && !byName) {
+            throw new IllegalArgumentException("Informe os IDs das carteiras ou um filtro de nome");
+        }
+        if (byIds && walletIds.size() > maxWallets) {
+            throw new IllegalArgumentException("Portfolio limitado a " + maxWallets + " carteiras");
+        }
+
+        // Só ID e nome; o filtro por nome sozinho lê no máximo uma carteira além do limite
+        List<WalletName> wallets;
+        if (byIds && byName) {
+            wallets = walletRepository.findByIdInAndSearchNameContaining(new LinkedHashSet<>(walletIds),
+                    Wallet.normalizeSearchName(name));
+        } else if (byIds) {
+            wallets = walletRepository.findByIdIn(new LinkedHashSet<>(walletIds));
+        } else {
+            wallets = walletRepository.findBySearchNameContainingOrderById(Wallet.normalizeSearchName(name),
+                    Limit.of(maxWallets + 1));
+        }
+        if (wallets.size() > maxWallets) {
+            throw new IllegalArgumentException("Portfolio limitado a " + maxWallets + " carteiras");
+        }
+
+        // Carteiras em ordem de ID, cada uma com seu mapa de saldos
+        Map<Long, WalletName> walletsById = new TreeMap<>();
+        Map<Long, Map<String, BigDecimal>> balances = new TreeMap<>();
+        for (WalletName wallet : wallets) {
+            walletsById.put(wallet.getId(), wallet);
+            balances.put(wallet.getId(), new TreeMap<>());
+        }
+
+        Map<String, BigDecimal> totals = new TreeMap<>();
+        if (!walletsById.isEmpty()) {
+            for (WalletAssetQuantity position : holdingRepository.findPositiveQuantities(walletsById.keySet())) {
+                balances.get(position.getWalletId()).put(position.getCryptocurrency(), position.getQuantity());
+                totals.merge(position.getCryptocurrency(), position.getQuantity(), BigDecimal::add);
+            }
+        }
+
+        List<WalletHoldings> breakdown = new ArrayList<>(walletsById.size());
+        walletsById.forEach((id, wallet) -> breakdown.add(new WalletHoldings(id, wallet.getName(), balances.get(id))));
+        return new PortfolioResponse(breakdown.size(), totals, breakdown);
+    }
+}
@@ -0,0 +1,90 @@
+package com.joaoac.cwm.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.enums.ExportFormat;
+import com.joaoac.cwm.repository.TransactionFilter;
+import com.joaoac.cwm.repository.TransactionRepository;
+
+/**
+ * Exporta o histórico de transações linha a linha a partir de um cursor do banco,
+ * com memória constante independentemente do tamanho da carteira.
+ */
+@Service
+public class TransactionExportService {
+
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${cwm.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public TransactionExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Escrever as transações filtradas no formato informado
+     */
+    public void export(TransactionFilter filter, ExportFormat format, OutputStream output) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Linhas projetadas em DTO não entram no contexto de persistência e podem ser coletadas
+            try (Stream<TransactionResponse> transactions = transactionRepository.streamAll(filter, fetchSize);
+                 SequenceWriter writer = writerFor(format).writeValues(output)) {
+                transactions.forEach(transaction -> write(writer, transaction));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private ObjectWriter writerFor(ExportFormat format) {
+        if (format == ExportFormat.CSV) {
+            return csvMapper.writerFor(TransactionResponse.class)
+                    .with(csvMapper.schemaFor(TransactionResponse.class).withHeader())
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        // O buffer da resposta decide quando enviar; flush por linha geraria um chunk por transação
+        return objectMapper.writerFor(TransactionResponse.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void write(SequenceWriter writer, TransactionResponse row) {
+        try {
+            writer.write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.joaoac.cwm.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.joaoac.cwm.model.Transaction;
+
+/**
+ * Lê o corpo de uma importação em lote (array JSON, NDJSON ou CSV com cabeçalho),
+ * convertendo linha a linha para que um registro inválido não interrompa os demais.
+ */
+@Component
+public class TransactionImportReader {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Ler as linhas conforme o Content-Type informado
+     */
+    public List<ImportRow> read(MediaType contentType, InputStream body) throws IOException {
+        if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return readNdjson(body);
+        }
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return readCsv(body);
+        }
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return readJsonArray(body);
+        }
+        throw new IllegalArgumentException("Formato de importação não suportado: " + contentType);
+    }
+
+    private List<ImportRow> readJsonArray(InputStream body) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Corpo JSON deve ser um array de transações");
+            }
+            int row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode node = objectMapper.readTree(parser);
+                rows.add(convert(++row, node));
+            }
+        }
+        return rows;
+    }
+
+    private List<ImportRow> readNdjson(InputStream body) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    rows.add(ImportRow.parsed(row, objectMapper.readValue(line, Transaction.class)));
+                } catch (JsonProcessingException e) {
+                    rows.add(ImportRow.failed(row, "JSON inválido: " + e.getOriginalMessage()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private List<ImportRow> readCsv(InputStream body) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> iterator = csvMapper.readerForMapOf(String.class)
+                .with(schema)
+                .readValues(body)) {
+            int row = 0;
+            while (iterator.hasNextValue()) {
+                Map<String, String> values = iterator.nextValue();
+                // Colunas vazias equivalem a campos não informados
+                values.values().removeIf(String::isEmpty);
+                rows.add(convert(++row, objectMapper.valueToTree(values)));
+            }
+        }
+        return rows;
+    }
+
+    private ImportRow convert(int row, JsonNode node) {
+        try {
+            return ImportRow.parsed(row, objectMapper.treeToValue(node, Transaction.class));
+        } catch (JsonProcessingException e) {
+            return ImportRow.failed(row, "Registro inválido: " + e.getOriginalMessage());
+        }
+    }
+}
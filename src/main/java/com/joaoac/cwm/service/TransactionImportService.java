@@ -0,0 +1,156 @@
+package com.joaoac.cwm.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.joaoac.cwm.dto.ImportError;
+import com.joaoac.cwm.dto.ImportResult;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.ledger.LedgerService;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Importação em lote de transações históricas de uma carteira.
+ * Cada linha é validada individualmente; as vendas são conferidas em ordem de data
+ * contra um saldo mantido em memória e as linhas aceitas são gravadas em lotes JDBC.
+ * As linhas lidas ficam em memória até o fim (a ordenação por data precisa de todas);
+ * o contexto de persistência e os eventos do ledger são tratados lote a lote.
+ */
+@Service
+public class TransactionImportService {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cwm.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Importar as linhas lidas para a carteira
+     */
+    public ImportResult importTransactions(Long walletId, List<ImportRow> rows) {
+        walletService.validateWalletExists(walletId);
+
+        List<ImportError> errors = new ArrayList<>();
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                errors.add(new ImportError(row.row(), row.error()));
+                continue;
+            }
+            Transaction transaction = row.transaction();
+            try {
+                transactionService.validateTransaction(transaction);
+            } catch (RuntimeException e) {
+                errors.add(new ImportError(row.row(), e.getMessage()));
+                continue;
+            }
+            if (transaction.getTotalValue() == null) {
+                transaction.calculateTotalValue();
+            }
+            accepted.add(row);
+        }
+
+        // Ordem cronológica (estável para datas iguais) para conferir as vendas incrementalmente
+        accepted.sort(Comparator.comparing(row -> row.transaction().getTransactionDate()));
+
+        List<String> cryptocurrencies = accepted.stream()
+                .map(row -> row.transaction().getCryptocurrency())
+                .distinct()
+                .toList();
+
+        int imported = holdingLockManager.executeLocked(walletId, cryptocurrencies,
+                () -> persistAccepted(walletId, accepted, errors));
+        walletCache.invalidate(walletId);
+
+        errors.sort(Comparator.comparingInt(ImportError::row));
+        return new ImportResult(rows.size(), imported, errors.size(), errors);
+    }
+
+    private int persistAccepted(Long walletId, List<ImportRow> accepted, List<ImportError> errors) {
+        Map<String, BigDecimal> balances = holdingService.getQuantities(walletId);
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        Wallet wallet = entityManager.getReference(Wallet.class, walletId);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+
+        // Linhas em ordem de data: a primeira define a partir de quando os snapshots deixam de valer
+        if (!accepted.isEmpty()) {
+            balanceSnapshotService.invalidateFrom(walletId, accepted.get(0).transaction().getTransactionDate());
+        }
+
+        for (ImportRow row : accepted) {
+            Transaction transaction = row.transaction();
+            String crypto = transaction.getCryptocurrency();
+            BigDecimal balance = balances.getOrDefault(crypto, BigDecimal.ZERO);
+
+            if (transaction.getTransactionType() == TransactionType.SELL
+                    && balance.compareTo(transaction.getQuantity()) < 0) {
+                errors.add(new ImportError(row.row(), "Saldo insuficiente para venda de " +
+                    transaction.getQuantity() + " " + crypto));
+                continue;
+            }
+            balances.put(crypto, balance.add(transaction.signedQuantity()));
+            deltas.merge(crypto, transaction.signedQuantity(), BigDecimal::add);
+
+            transaction.setId(null);
+            transaction.setWallet(wallet);
+            transaction.setWalletId(walletId);
+            entityManager.persist(transaction);
+            batch.add(transaction);
+            imported++;
+
+            // Envia o lote com seus eventos do ledger e libera o contexto de persistência
+            if (batch.size() == batchSize) {
+                flushBatch(walletId, batch);
+            }
+        }
+        flushBatch(walletId, batch);
+
+        deltas.forEach((crypto, delta) -> holdingService.adjust(walletId, crypto, delta));
+        return imported;
+    }
+
+    // IDs gerados no flush; recordCreated grava os eventos e limpa o contexto
+    private void flushBatch(Long walletId, List<Transaction> batch) {
+        entityManager.flush();
+        ledgerService.recordCreated(walletId, batch);
+        entityManager.clear();
+        batch.clear();
+    }
+}
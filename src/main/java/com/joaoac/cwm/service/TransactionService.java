@@ -1,18 +1,42 @@
 package com.joaoac.cwm.service;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.joaoac.cwm.config.ServiceMetricsAspect;
+import com.joaoac.cwm.dto.TransactionCursor;
+import com.joaoac.cwm.dto.TransactionPage;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.dto.TransactionStats;
+import com.joaoac.cwm.dto.ValidationError;
 import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.enums.ValidationErrorCode;
 import com.joaoac.cwm.model.Transaction;
 import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.TransactionFilter;
 import com.joaoac.cwm.repository.TransactionRepository;
+import com.joaoac.cwm.repository.TransactionTypeTotals;
 import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.ledger.LedgerService;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class TransactionService {
@@ -23,17 +47,69 @@ public class TransactionService {
     @Autowired
     private WalletRepository walletRepository;
 
-    // Lista de criptomoedas válidas para validação
-    private static final List<String> VALID_CRYPTOCURRENCIES = Arrays.asList(
-            "BTC", "ETH", "BNB", "ADA", "XRP", "SOL", "DOT", "DOGE", "AVAX", "MATIC",
-            "LTC", "BCH", "LINK", "UNI", "ATOM", "XLM", "VET", "FIL", "TRX", "ETC"
-    );
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    // Lazy: WalletService também depende deste serviço
+    @Lazy
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private AssetRegistry assetRegistry;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cwm.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${cwm.pagination.max-size:500}")
+    private int maxPageSize;
+
+    // Relógio usado na validação de datas (fuso local, como LocalDateTime.now())
+    private final Clock clock = Clock.systemDefaultZone();
+
+    // Chamadas internas não passam pelo aspecto de métricas: validação e conferência de saldo são medidas aqui
+    private Timer validateTimer;
+    private Timer balanceCheckTimer;
+
+    @PostConstruct
+    void registerTimers() {
+        validateTimer = operationTimer("validate", "success", "none");
+        balanceCheckTimer = operationTimer("balanceCheck", "success", "none");
+    }
 
     /**
-     * Buscar todas as transações
+     * Buscar uma página de transações a partir de um cursor
      */
-    public List<Transaction> findAll() {
-        return transactionRepository.findAll();
+    public TransactionPage findPage(TransactionFilter filter, String cursor, Integer size, String order) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        Sort.Direction direction = Sort.Direction.fromString(order);
+
+        // Símbolo desconhecido não tem transações: página vazia, sem consultar o banco
+        if (filter.cryptocurrency() != null && !assetRegistry.isRegistered(filter.cryptocurrency())) {
+            return new TransactionPage(List.of(), pageSize, null);
+        }
+
+        Slice<TransactionResponse> slice = transactionRepository.findSlice(filter, TransactionCursor.decode(cursor),
+                direction, pageSize);
+
+        List<TransactionResponse> content = slice.getContent();
+        String next = slice.hasNext() ? TransactionCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new TransactionPage(content, pageSize, next);
     }
 
     /**
@@ -51,147 +127,327 @@ public class TransactionService {
         return transactionRepository.findByWalletId(walletId);
     }
 
+    /**
+     * Verificar se a carteira tem alguma transação
+     */
+    public boolean existsByWalletId(Long walletId) {
+        return transactionRepository.existsByWalletId(walletId);
+    }
+
+    /**
+     * Deletar até {@code limit} transações da carteira, sem carregá-las; retorna quantas foram removidas
+     */
+    public int deleteChunkByWalletId(Long walletId, int limit) {
+        return transactionRepository.deleteChunkByWalletId(walletId, limit);
+    }
+
+    /**
+     * Deletar as transações restantes da carteira em um único DELETE
+     */
+    public int deleteByWalletId(Long walletId) {
+        return transactionRepository.deleteByWalletId(walletId);
+    }
+
+    /**
+     * Buscar a transação mais recente de uma carteira
+     */
+    public Optional<TransactionResponse> findLatestByWalletId(Long walletId) {
+        return transactionRepository.findFirstByWalletIdOrderByTransactionDateDescIdDesc(walletId);
+    }
+
     /**
      * Salvar ou atualizar transação
      */
     public Transaction save(Long walletId, Transaction transaction) {
-        // Verificar se a carteira existe
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + walletId));
+        // Validar transação (normaliza a criptomoeda usada como chave do lock)
+        validateTransaction(transaction);
 
-        // Associar transação à carteira
-        transaction.setWallet(wallet);
-        transaction.setWalletId(walletId);
+        // Verificação de saldo e gravação sob o lock da posição, até o commit
+        Transaction savedTransaction = holdingLockManager.executeLocked(walletId, List.of(transaction.getCryptocurrency()), () -> {
+            // Verificar se a carteira existe
+            Wallet wallet = walletRepository.findById(walletId)
+                    .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + walletId));
 
-        // Validar transação
-        validateTransaction(transaction);
+            // Associar transação à carteira
+            transaction.setWallet(wallet);
+            transaction.setWalletId(walletId);
 
-        // Calcular valor total se não foi informado
-        if (transaction.getTotalValue() == null) {
-            transaction.calculateTotalValue();
-        }
+            // Calcular valor total se não foi informado
+            if (transaction.getTotalValue() == null) {
+                transaction.calculateTotalValue();
+            }
 
-        // Verificar saldo para vendas
-        if (transaction.getTransactionType() == TransactionType.SELL) {
-            if (!checkSufficientBalance(walletId, transaction.getCryptocurrency(), transaction.getQuantity())) {
-                throw new RuntimeException("Saldo insuficiente para venda de " + 
-                    transaction.getQuantity() + " " + transaction.getCryptocurrency());
+            // Verificar saldo para vendas (sempre no banco, nunca no cache)
+            if (transaction.getTransactionType() == TransactionType.SELL) {
+                if (!hasLockedBalance(walletId, transaction.getCryptocurrency(), transaction.getQuantity())) {
+                    throw new RuntimeException("Saldo insuficiente para venda de " + 
+                        transaction.getQuantity() + " " + transaction.getCryptocurrency());
+                }
             }
-        }
 
-        return transactionRepository.save(transaction);
+            balanceSnapshotService.invalidateFrom(walletId, transaction.getTransactionDate());
+            Transaction persistedTransaction = transactionRepository.save(transaction);
+            ledgerService.recordCreated(persistedTransaction);
+            holdingService.apply(persistedTransaction);
+            return persistedTransaction;
+        });
+
+        walletCache.invalidate(walletId);
+        return savedTransaction;
     }
 
     /**
      * Atualizar transação existente
      */
     public Transaction update(Long transactionId, Transaction transactionDetails) {
-        Transaction existingTransaction = findById(transactionId);
-        
-        // Manter a carteira original
-        transactionDetails.setId(transactionId);
-        transactionDetails.setWallet(existingTransaction.getWallet());
-        transactionDetails.setWalletId(existingTransaction.getWalletId());
-
-        // Validar e salvar
+        return update(transactionId, transactionDetails, null);
+    }
+
+    /**
+     * Atualizar transação existente se ela ainda estiver em uma das versões aceitas (null aceita qualquer versão)
+     */
+    public Transaction update(Long transactionId, Transaction transactionDetails, Set<Long> acceptedVersions) {
+        Transaction currentTransaction = findById(transactionId);
+        // Versão desatualizada falha antes de esperar pelo lock das posições
+        checkVersion(currentTransaction, acceptedVersions);
         validateTransaction(transactionDetails);
-        
-        if (transactionDetails.getTotalValue() == null) {
-            transactionDetails.calculateTotalValue();
-        }
 
-        return transactionRepository.save(transactionDetails);
+        Long walletId = currentTransaction.getWalletId();
+        Set<String> lockedCryptocurrencies = Set.copyOf(List.of(
+                currentTransaction.getCryptocurrency(), transactionDetails.getCryptocurrency()));
+
+        Transaction result = holdingLockManager.executeLocked(walletId, lockedCryptocurrencies, () -> {
+            Transaction existingTransaction = findLockedTransaction(transactionId, lockedCryptocurrencies);
+            checkVersion(existingTransaction, acceptedVersions);
+
+            // Manter a carteira original
+            transactionDetails.setId(transactionId);
+            transactionDetails.setWalletId(existingTransaction.getWalletId());
+
+            if (transactionDetails.getTotalValue() == null) {
+                transactionDetails.calculateTotalValue();
+            }
+
+            // Variação de cada posição: desfaz a versão anterior e aplica a nova
+            Map<String, BigDecimal> deltas = new HashMap<>();
+            deltas.merge(existingTransaction.getCryptocurrency(), existingTransaction.signedQuantity().negate(), BigDecimal::add);
+            deltas.merge(transactionDetails.getCryptocurrency(), transactionDetails.signedQuantity(), BigDecimal::add);
+
+            ledgerService.recordAmended(existingTransaction, transactionDetails);
+            holdingService.revert(existingTransaction);
+            LocalDateTime earliestDate = existingTransaction.getTransactionDate().isBefore(transactionDetails.getTransactionDate())
+                    ? existingTransaction.getTransactionDate() : transactionDetails.getTransactionDate();
+            balanceSnapshotService.invalidateFrom(walletId, earliestDate);
+
+            // Copiar para a entidade gerenciada: o UPDATE confere e incrementa a versão
+            existingTransaction.setCryptocurrency(transactionDetails.getCryptocurrency());
+            existingTransaction.setTransactionType(transactionDetails.getTransactionType());
+            existingTransaction.setQuantity(transactionDetails.getQuantity());
+            existingTransaction.setPricePerUnit(transactionDetails.getPricePerUnit());
+            existingTransaction.setTotalValue(transactionDetails.getTotalValue());
+            existingTransaction.setTransactionDate(transactionDetails.getTransactionDate());
+            existingTransaction.setNotes(transactionDetails.getNotes());
+            holdingService.apply(existingTransaction);
+
+            // Uma posição reduzida pela alteração não pode ficar negativa (venda maior, compra menor ou troca de moeda)
+            deltas.forEach((crypto, delta) -> {
+                if (delta.signum() < 0 && !hasLockedBalance(walletId, crypto, BigDecimal.ZERO)) {
+                    throw new RuntimeException("Saldo insuficiente de " + crypto +
+                        " para alterar a transação " + transactionId);
+                }
+            });
+            return existingTransaction;
+        });
+
+        walletCache.invalidate(walletId);
+        return result;
+    }
+
+    /**
+     * Conferir as versões aceitas pelo cliente
+     */
+    private void checkVersion(Transaction transaction, Set<Long> acceptedVersions) {
+        if (acceptedVersions != null && !acceptedVersions.contains(transaction.getVersion())) {
+            throw new VersionConflictException("Transação " + transaction.getId() + " alterada: versão atual " +
+                transaction.getVersion() + ", esperada " + acceptedVersions, transaction.getVersion());
+        }
     }
 
     /**
      * Deletar transação por ID
      */
     public void deleteById(Long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new RuntimeException("Transação não encontrada com ID: " + id);
+        Transaction currentTransaction = findById(id);
+        Set<String> lockedCryptocurrencies = Set.of(currentTransaction.getCryptocurrency());
+
+        holdingLockManager.executeLocked(currentTransaction.getWalletId(), lockedCryptocurrencies, () -> {
+            Transaction existingTransaction = findLockedTransaction(id, lockedCryptocurrencies);
+            ledgerService.recordVoided(existingTransaction);
+            holdingService.revert(existingTransaction);
+            balanceSnapshotService.invalidateFrom(existingTransaction.getWalletId(), existingTransaction.getTransactionDate());
+            transactionRepository.delete(existingTransaction);
+            return null;
+        });
+
+        walletCache.invalidate(currentTransaction.getWalletId());
+    }
+
+    /**
+     * Recarregar transação dentro do lock, garantindo que a posição travada ainda é a dela
+     */
+    private Transaction findLockedTransaction(Long id, Set<String> lockedCryptocurrencies) {
+        Transaction transaction = findById(id);
+        if (!lockedCryptocurrencies.contains(transaction.getCryptocurrency())) {
+            throw new RuntimeException("Transação alterada concorrentemente: " + id);
         }
-        transactionRepository.deleteById(id);
+        return transaction;
     }
 
     /**
-     * Verificar se há saldo suficiente para venda
+     * Verificar se há saldo suficiente para venda (consulta informativa, usa o saldo em cache)
      */
     public boolean checkSufficientBalance(Long walletId, String cryptocurrency, BigDecimal quantityToSell) {
-        List<Transaction> transactions = findByWalletId(walletId);
-        BigDecimal currentBalance = BigDecimal.ZERO;
-
-        for (Transaction transaction : transactions) {
-            if (transaction.getCryptocurrency().equalsIgnoreCase(cryptocurrency)) {
-                if (transaction.getTransactionType() == TransactionType.BUY) {
-                    currentBalance = currentBalance.add(transaction.getQuantity());
-                } else if (transaction.getTransactionType() == TransactionType.SELL) {
-                    currentBalance = currentBalance.subtract(transaction.getQuantity());
-                }
-            }
-        }
+        BigDecimal currentBalance = walletService.calculateWalletBalance(walletId)
+                .getOrDefault(cryptocurrency.toUpperCase(), BigDecimal.ZERO);
+        return currentBalance.compareTo(quantityToSell) >= 0;
+    }
 
+    /**
+     * Conferir o saldo no banco, sob o lock da posição, antes de aceitar uma venda
+     */
+    private boolean hasLockedBalance(Long walletId, String cryptocurrency, BigDecimal quantityToSell) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BigDecimal currentBalance;
+        try {
+            currentBalance = holdingService.getQuantity(walletId, cryptocurrency);
+        } catch (RuntimeException e) {
+            sample.stop(operationTimer("balanceCheck", "error", e.getClass().getSimpleName()));
+            throw e;
+        }
+        sample.stop(balanceCheckTimer);
         return currentBalance.compareTo(quantityToSell) >= 0;
     }
 
     /**
-     * Buscar transações por criptomoeda
+     * Somar o valor total das transações de um tipo na carteira
+     */
+    public BigDecimal sumTotalValue(Long walletId, TransactionType transactionType) {
+        BigDecimal total = transactionRepository.sumTotalValue(walletId, transactionType);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Calcular estatísticas da carteira (em cache até a próxima escrita de transação)
+     */
+    public TransactionStats getTransactionStats(Long walletId) {
+        return walletCache.getStats(walletId, () -> loadTransactionStats(walletId));
+    }
+
+    /**
+     * Calcular estatísticas da carteira com uma consulta agregada por tipo
      */
-    public List<Transaction> findByWalletIdAndCryptocurrency(Long walletId, String cryptocurrency) {
-        return transactionRepository.findByWalletIdAndCryptocurrency(walletId, cryptocurrency);
+    private TransactionStats loadTransactionStats(Long walletId) {
+        long buyTransactions = 0;
+        long sellTransactions = 0;
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        BigDecimal totalWithdrawn = BigDecimal.ZERO;
+
+        for (TransactionTypeTotals totals : transactionRepository.sumByTransactionType(walletId)) {
+            BigDecimal totalValue = totals.getTotalValue() != null ? totals.getTotalValue() : BigDecimal.ZERO;
+            if (totals.getTransactionType() == TransactionType.BUY) {
+                buyTransactions = totals.getTransactionCount();
+                totalInvested = totalValue;
+            } else if (totals.getTransactionType() == TransactionType.SELL) {
+                sellTransactions = totals.getTransactionCount();
+                totalWithdrawn = totalValue;
+            }
+        }
+
+        return new TransactionStats(buyTransactions + sellTransactions, buyTransactions, sellTransactions,
+                totalInvested, totalWithdrawn, totalInvested.subtract(totalWithdrawn));
     }
 
     /**
-     * Buscar transações em um período
+     * Listar as criptomoedas suportadas
      */
-    public List<Transaction> findByWalletIdAndDateRange(Long walletId, 
-                                                       LocalDateTime startDate, 
-                                                       LocalDateTime endDate) {
-        return transactionRepository.findByWalletIdAndTransactionDateBetween(walletId, startDate, endDate);
+    public List<String> getSupportedCryptocurrencies() {
+        return assetRegistry.getActiveSymbols();
     }
 
     /**
-     * Validar dados da transação
+     * Validar dados da transação, reunindo todas as violações em uma única exceção
      */
     public void validateTransaction(Transaction transaction) {
-        // Validar criptomoeda
-        if (transaction.getCryptocurrency() == null || transaction.getCryptocurrency().trim().isEmpty()) {
-            throw new RuntimeException("Criptomoeda é obrigatória");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            checkTransaction(transaction);
+        } catch (RuntimeException e) {
+            sample.stop(operationTimer("validate", "error", e.getClass().getSimpleName()));
+            throw e;
         }
+        sample.stop(validateTimer);
+    }
 
-        String crypto = transaction.getCryptocurrency().toUpperCase();
-        if (!VALID_CRYPTOCURRENCIES.contains(crypto)) {
-            throw new RuntimeException("Criptomoeda não suportada: " + crypto);
+    private void checkTransaction(Transaction transaction) {
+        List<ValidationError> errors = null;
+
+        // Validar criptomoeda (normalizada para o símbolo canônico)
+        String crypto = transaction.getCryptocurrency();
+        if (crypto == null || crypto.isBlank()) {
+            errors = addError(errors, ValidationErrorCode.CRYPTOCURRENCY_REQUIRED, null);
+        } else {
+            String canonical = assetRegistry.lookupActive(crypto);
+            if (canonical == null) {
+                errors = addError(errors, ValidationErrorCode.UNSUPPORTED_CRYPTOCURRENCY, crypto);
+            } else {
+                transaction.setCryptocurrency(canonical);
+            }
         }
-        transaction.setCryptocurrency(crypto);
 
         // Validar tipo de transação
         if (transaction.getTransactionType() == null) {
-            throw new RuntimeException("Tipo de transação é obrigatório");
+            errors = addError(errors, ValidationErrorCode.TRANSACTION_TYPE_REQUIRED, null);
         }
 
         // Validar quantidade
-        if (transaction.getQuantity() == null || transaction.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("Quantidade deve ser maior que zero");
+        if (transaction.getQuantity() == null || transaction.getQuantity().signum() <= 0) {
+            errors = addError(errors, ValidationErrorCode.INVALID_QUANTITY, transaction.getQuantity());
         }
 
         // Validar preço por unidade
-        if (transaction.getPricePerUnit() == null || transaction.getPricePerUnit().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new RuntimeException("Preço por unidade deve ser maior que zero");
+        if (transaction.getPricePerUnit() == null || transaction.getPricePerUnit().signum() <= 0) {
+            errors = addError(errors, ValidationErrorCode.INVALID_PRICE, transaction.getPricePerUnit());
         }
 
-        // Validar data da transação
+        // Validar data da transação (uma única leitura do relógio)
+        LocalDateTime now = LocalDateTime.now(clock);
         if (transaction.getTransactionDate() == null) {
-            transaction.setTransactionDate(LocalDateTime.now());
-        }
-
-        // Não permitir transações no futuro
-        if (transaction.getTransactionDate().isAfter(LocalDateTime.now())) {
-            throw new RuntimeException("Data da transação não pode ser no futuro");
+            transaction.setTransactionDate(now);
+        } else if (transaction.getTransactionDate().isAfter(now)) {
+            // Não permitir transações no futuro
+            errors = addError(errors, ValidationErrorCode.FUTURE_DATE, transaction.getTransactionDate());
         }
 
         // Validar notas (opcional)
         if (transaction.getNotes() != null && transaction.getNotes().length() > 255) {
-            throw new RuntimeException("Notas devem ter no máximo 255 caracteres");
+            errors = addError(errors, ValidationErrorCode.NOTES_TOO_LONG, null);
         }
+
+        if (errors != null) {
+            throw new TransactionValidationException(errors);
+        }
+    }
+
+    private Timer operationTimer(String operation, String outcome, String exception) {
+        return ServiceMetricsAspect.timer(meterRegistry, TransactionService.class.getSimpleName(),
+                operation, outcome, exception);
+    }
+
+    // A lista só é criada na primeira violação; o caminho válido não aloca
+    private static List<ValidationError> addError(List<ValidationError> errors, ValidationErrorCode code,
+                                                  Object rejectedValue) {
+        List<ValidationError> result = errors != null ? errors : new ArrayList<>(4);
+        result.add(new ValidationError(code, rejectedValue));
+        return result;
     }
 }
\ No newline at end of file
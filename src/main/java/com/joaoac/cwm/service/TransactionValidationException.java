@@ -0,0 +1,30 @@
+package com.joaoac.cwm.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.joaoac.cwm.dto.ValidationError;
+
+/**
+ * Falha de validação com todas as violações encontradas na transação.
+ * Não captura stack trace: é um resultado esperado da entrada, não um erro
+ * de programação, e pode ocorrer milhares de vezes em uma importação.
+ */
+public class TransactionValidationException extends RuntimeException {
+
+    private final List<ValidationError> errors;
+
+    public TransactionValidationException(List<ValidationError> errors) {
+        super(null, null, false, false);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String getMessage() {
+        return errors.stream().map(ValidationError::message).collect(Collectors.joining("; "));
+    }
+}
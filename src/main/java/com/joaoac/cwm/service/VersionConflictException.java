@@ -0,0 +1,19 @@
+package com.joaoac.cwm.service;
+
+/**
+ * Escrita condicional recusada: a versão informada pelo cliente (If-Match)
+ * não é mais a atual. Não captura stack trace, é um resultado esperado da concorrência.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public VersionConflictException(String message, Long currentVersion) {
+        super(message, null, false, false);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,137 @@
+package com.joaoac.cwm.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import com.joaoac.cwm.dto.CacheStatsResponse;
+import com.joaoac.cwm.dto.TransactionStats;
+import com.joaoac.cwm.repository.WalletRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache de leitura, por carteira, do saldo e das estatísticas de transações.
+ * <p>
+ * Cada valor guarda a sequência do ledger (wallets.ledger_sequence) lida antes
+ * da carga. Toda escrita de transação, em qualquer instância, avança essa
+ * sequência; a leitura compara com a sequência atual (uma busca pela chave
+ * primária) e recarrega se ela mudou. Assim uma escrita em outra instância não
+ * deixa valor antigo aqui. Uma escrita concorrente com a carga pode entrar no
+ * valor marcado com a sequência anterior; a leitura seguinte só recarrega.
+ * <p>
+ * A carga roda fora do mapa (sem monitor de bin nem thread virtual presa durante
+ * a consulta) e o resultado entra por merge, ficando o de maior sequência. Os
+ * contadores são registrados aqui: valor desatualizado conta como falta.
+ * <p>
+ * As escritas locais ainda chamam {@link #invalidate(Long)} depois do commit, e
+ * o limite de tamanho e de tempo só controla a memória.
+ */
+@Component
+public class WalletCache implements MeterBinder {
+
+    private final WalletRepository walletRepository;
+    private final Cache<Long, Sequenced<Map<String, BigDecimal>>> balances;
+    private final Cache<Long, Sequenced<TransactionStats>> stats;
+    private final StatsCounter balanceCounter = new ConcurrentStatsCounter();
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    public WalletCache(WalletRepository walletRepository,
+                       @Value("${cwm.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${cwm.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.walletRepository = walletRepository;
+        this.balances = build(maximumSize, expireAfterWrite, balanceCounter);
+        this.stats = build(maximumSize, expireAfterWrite, statsCounter);
+    }
+
+    /**
+     * Buscar o saldo da carteira, carregando-o em caso de falta ou de nova escrita
+     */
+    public Map<String, BigDecimal> getBalance(Long walletId, Supplier<Map<String, BigDecimal>> loader) {
+        return get(balances, balanceCounter, walletId, () -> Map.copyOf(loader.get()));
+    }
+
+    /**
+     * Buscar as estatísticas da carteira, carregando-as em caso de falta ou de nova escrita
+     */
+    public TransactionStats getStats(Long walletId, Supplier<TransactionStats> loader) {
+        return get(stats, statsCounter, walletId, loader);
+    }
+
+    /**
+     * Descartar os valores da carteira
+     */
+    public void invalidate(Long walletId) {
+        balances.invalidate(walletId);
+        stats.invalidate(walletId);
+    }
+
+    /**
+     * Contadores de acerto, falta e despejo de cada cache
+     */
+    public List<CacheStatsResponse> getCacheStats() {
+        return List.of(CacheStatsResponse.of("wallet-balances", balances),
+                CacheStatsResponse.of("transaction-stats", stats));
+    }
+
+    /**
+     * Publicar os contadores dos caches como métricas (cache.gets, cache.evictions, ...)
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, balances, "wallet-balances");
+        CaffeineCacheMetrics.monitor(registry, stats, "transaction-stats");
+    }
+
+    private <V> V get(Cache<Long, Sequenced<V>> cache, StatsCounter counter, Long walletId, Supplier<V> loader) {
+        Long sequence = walletRepository.findLedgerSequence(walletId).orElse(null);
+        if (sequence == null) {
+            // Carteira inexistente: a carga decide o erro e nada fica no cache
+            return loader.get();
+        }
+
+        // asMap().get não registra acerto: o valor ainda precisa ser conferido
+        Sequenced<V> cached = cache.asMap().get(walletId);
+        if (cached != null && cached.sequence() >= sequence) {
+            counter.recordHits(1);
+            return cached.value();
+        }
+        counter.recordMisses(1);
+
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            counter.recordLoadFailure(System.nanoTime() - start);
+            throw e;
+        }
+        counter.recordLoadSuccess(System.nanoTime() - start);
+
+        // Cargas concorrentes da carteira: fica a de maior sequência
+        return cache.asMap().merge(walletId, new Sequenced<>(sequence, value),
+                (current, loaded) -> current.sequence() >= loaded.sequence() ? current : loaded).value();
+    }
+
+    private record Sequenced<V>(long sequence, V value) {
+    }
+
+    private static <V> Cache<Long, V> build(long maximumSize, Duration expireAfterWrite, StatsCounter counter) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats(() -> counter)
+                .build();
+    }
+}
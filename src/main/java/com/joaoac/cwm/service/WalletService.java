@@ -2,17 +2,27 @@ package com.joaoac.cwm.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.joaoac.cwm.dto.WalletPage;
+import com.joaoac.cwm.dto.WalletSummary;
+import com.joaoac.cwm.enums.NameMatch;
 import com.joaoac.cwm.enums.TransactionType;
-import com.joaoac.cwm.model.Transaction;
 import com.joaoac.cwm.model.Wallet;
 import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.ledger.LedgerService;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotService;
 
 @Service
 public class WalletService {
@@ -23,9 +33,55 @@ public class WalletService {
     @Autowired
     private TransactionService transactionService;
 
-    // Buscar todas as carteiras
-    public List<Wallet> findAll() {
-        return walletRepository.findAll();
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Value("${cwm.purge.chunk-size:10000}")
+    private int purgeChunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public WalletService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Value("${cwm.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${cwm.pagination.max-size:500}")
+    private int maxPageSize;
+
+    // Listar uma página de carteiras a partir de um ID, opcionalmente filtrada pelo nome
+    public WalletPage findPage(Long after, Integer size, String name, NameMatch match) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        long from = after == null ? 0L : after;
+        // Uma linha a mais indica se existe página seguinte
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<WalletSummary> rows;
+        if (name == null || name.isBlank()) {
+            rows = walletRepository.findSummariesAfter(from, limit);
+        } else {
+            String escaped = Wallet.normalizeSearchName(name)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            String pattern = match == NameMatch.CONTAINS ? "%" + escaped + "%" : escaped + "%";
+            rows = walletRepository.findSummariesBySearchNameLike(pattern, from, limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new WalletPage(rows, pageSize, null);
+        }
+        List<WalletSummary> content = rows.subList(0, pageSize);
+        return new WalletPage(List.copyOf(content), pageSize, content.get(pageSize - 1).id());
     }
 
     // Buscar carteira por ID
@@ -49,22 +105,73 @@ public class WalletService {
     }
 
     // Deletar carteira por ID
+    @Transactional
     public void deleteById(Long id) {
         validateWalletExists(id);
         
-        // Verificar se existem transações associadas
-        List<Transaction> transactions = transactionService.findByWalletId(id);
-        if (!transactions.isEmpty()) {
+        // Verificar se existem transações associadas (consulta com LIMIT 1)
+        if (transactionService.existsByWalletId(id)) {
             throw new RuntimeException("Não é possível deletar carteira com transações associadas");
         }
         
+        holdingService.deleteByWalletId(id);
+        balanceSnapshotService.deleteByWalletId(id);
+        ledgerService.deleteByWalletId(id);
         walletRepository.deleteById(id);
+        walletCache.invalidate(id);
+    }
+
+    // Deletar carteira com todo o histórico; retorna o número de transações removidas.
+    // O histórico sai em blocos de DELETE, cada um em uma transação curta, para não
+    // manter locks nem o contexto de persistência crescendo durante toda a exclusão
+    public long purgeById(Long id) {
+        validateWalletExists(id);
+
+        long deleted = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> transactionService.deleteChunkByWalletId(id, purgeChunkSize));
+            deleted += removed;
+        } while (removed == purgeChunkSize);
+
+        do {
+            removed = transactionTemplate.execute(status -> balanceSnapshotService.deleteChunkByWalletId(id, purgeChunkSize));
+        } while (removed == purgeChunkSize);
+
+        do {
+            removed = transactionTemplate.execute(status -> ledgerService.deleteChunkByWalletId(id, purgeChunkSize));
+        } while (removed == purgeChunkSize);
+
+        // Por fim, com a carteira travada, remover o que foi gravado durante a exclusão e a própria carteira
+        Integer remaining = transactionTemplate.execute(status -> {
+            walletRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + id));
+            int late = transactionService.deleteByWalletId(id);
+            balanceSnapshotService.deleteByWalletId(id);
+            ledgerService.deleteByWalletId(id);
+            holdingService.deleteByWalletId(id);
+            walletRepository.deleteById(id);
+            return late;
+        });
+        walletCache.invalidate(id);
+        return deleted + remaining;
     }
 
     // Atualizar carteira existente
     public Wallet update(Long id, Wallet walletDetails) {
+        return update(id, walletDetails, null);
+    }
+
+    // Atualizar carteira se ela ainda estiver em uma das versões aceitas (null aceita qualquer versão).
+    // Sem lock no banco: o merge confere a versão, e uma escrita concorrente falha com
+    // OptimisticLockingFailureException em vez de ser sobrescrita
+    public Wallet update(Long id, Wallet walletDetails, Set<Long> acceptedVersions) {
         Wallet existing = findById(id);
-        
+        if (acceptedVersions != null && !acceptedVersions.contains(existing.getVersion())) {
+            throw new VersionConflictException("Carteira " + id + " alterada: versão atual " +
+                existing.getVersion() + ", esperada " + acceptedVersions, existing.getVersion());
+        }
+
         existing.setName(walletDetails.getName());
         existing.setDescription(walletDetails.getDescription());
         existing.setUpdatedAt(LocalDateTime.now());
@@ -73,46 +180,27 @@ public class WalletService {
         return walletRepository.save(existing);
     }
 
-    // Calcular saldo da carteira
+    // Calcular saldo da carteira (em cache até a próxima escrita de transação)
     public Map<String, BigDecimal> calculateWalletBalance(Long walletId) {
-        validateWalletExists(walletId);
-        
-        List<Transaction> transactions = transactionService.findByWalletId(walletId);
-        Map<String, BigDecimal> balance = new HashMap<>();
-
-        for (Transaction transaction : transactions) {
-            String crypto = transaction.getCryptocurrency();
-            BigDecimal quantity = transaction.getQuantity();
-            
-            // Se é compra, adiciona; se é venda, subtrai
-            if (transaction.getTransactionType() == TransactionType.BUY) {
-                balance.merge(crypto, quantity, BigDecimal::add);
-            } else if (transaction.getTransactionType() == TransactionType.SELL) {
-                balance.merge(crypto, quantity.negate(), BigDecimal::add);
-            }
-        }
+        return walletCache.getBalance(walletId, () -> {
+            validateWalletExists(walletId);
+
+            // Posições mantidas a cada escrita de transação (uma linha por criptomoeda)
+            Map<String, BigDecimal> balance = holdingService.getQuantities(walletId);
 
-        // Remover criptomoedas com saldo zero ou negativo
-        balance.entrySet().removeIf(entry -> 
-            entry.getValue().compareTo(BigDecimal.ZERO) <= 0);
+            // Remover criptomoedas com saldo zero ou negativo
+            balance.entrySet().removeIf(entry -> 
+                entry.getValue().compareTo(BigDecimal.ZERO) <= 0);
 
-        return balance;
+            return balance;
+        });
     }
 
     // Calcular total investido na carteira
     public BigDecimal calculateTotalInvested(Long walletId) {
         validateWalletExists(walletId);
         
-        List<Transaction> transactions = transactionService.findByWalletId(walletId);
-        BigDecimal totalInvested = BigDecimal.ZERO;
-
-        for (Transaction transaction : transactions) {
-            if (transaction.getTransactionType() == TransactionType.BUY) {
-                totalInvested = totalInvested.add(transaction.getTotalValue());
-            }
-        }
-
-        return totalInvested;
+        return transactionService.sumTotalValue(walletId, TransactionType.BUY);
     }
 
     // Verificar se a carteira existe
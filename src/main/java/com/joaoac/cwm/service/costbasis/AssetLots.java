@@ -0,0 +1,95 @@
+package com.joaoac.cwm.service.costbasis;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import com.joaoac.cwm.dto.LotResponse;
+import com.joaoac.cwm.enums.CostBasisMethod;
+
+/**
+ * Estado de custo de um ativo: lotes em aberto, custo total e P&L realizado.
+ * FIFO consome os lotes mais antigos, LIFO os mais recentes e AVERAGE_COST mantém
+ * um único lote com o custo médio ponderado.
+ */
+final class AssetLots {
+
+    static final MathContext PRECISION = MathContext.DECIMAL128;
+
+    private final CostBasisMethod method;
+    private final Deque<Lot> openLots = new ArrayDeque<>();
+    private BigDecimal quantity = BigDecimal.ZERO;
+    private BigDecimal costBasis = BigDecimal.ZERO;
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+
+    AssetLots(CostBasisMethod method) {
+        this.method = method;
+    }
+
+    void buy(LocalDateTime date, BigDecimal boughtQuantity, BigDecimal totalCost) {
+        quantity = quantity.add(boughtQuantity);
+        costBasis = costBasis.add(totalCost);
+
+        if (method == CostBasisMethod.AVERAGE_COST) {
+            openLots.clear();
+            if (quantity.signum() > 0) {
+                openLots.add(new Lot(date, quantity, costBasis.divide(quantity, PRECISION)));
+            }
+            return;
+        }
+        openLots.addLast(new Lot(date, boughtQuantity, totalCost.divide(boughtQuantity, PRECISION)));
+    }
+
+    void sell(BigDecimal soldQuantity, BigDecimal proceeds) {
+        BigDecimal remaining = soldQuantity;
+        BigDecimal consumedCost = BigDecimal.ZERO;
+
+        // Venda acima do saldo (histórico inconsistente) consome o que houver; o excedente entra sem custo
+        while (remaining.signum() > 0 && !openLots.isEmpty()) {
+            Lot lot = method == CostBasisMethod.LIFO ? openLots.peekLast() : openLots.peekFirst();
+            BigDecimal taken = lot.take(remaining);
+            consumedCost = consumedCost.add(taken.multiply(lot.getUnitCost(), PRECISION));
+            remaining = remaining.subtract(taken);
+            if (lot.isEmpty()) {
+                if (method == CostBasisMethod.LIFO) {
+                    openLots.pollLast();
+                } else {
+                    openLots.pollFirst();
+                }
+            }
+        }
+
+        BigDecimal soldFromLots = soldQuantity.subtract(remaining);
+        quantity = quantity.subtract(soldFromLots);
+        costBasis = quantity.signum() > 0 ? costBasis.subtract(consumedCost) : BigDecimal.ZERO;
+        realizedPnl = realizedPnl.add(proceeds.subtract(consumedCost));
+    }
+
+    BigDecimal getQuantity() {
+        return quantity;
+    }
+    BigDecimal getCostBasis() {
+        return costBasis;
+    }
+    BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    BigDecimal getAverageCost() {
+        return quantity.signum() > 0 ? costBasis.divide(quantity, PRECISION) : BigDecimal.ZERO;
+    }
+
+    int getOpenLotCount() {
+        return openLots.size();
+    }
+
+    List<LotResponse> getOpenLots() {
+        return openLots.stream()
+                .map(lot -> new LotResponse(lot.getAcquiredAt(), CostBasisLedger.scale(lot.getQuantity()),
+                        CostBasisLedger.scale(lot.getUnitCost())))
+                .toList();
+    }
+}
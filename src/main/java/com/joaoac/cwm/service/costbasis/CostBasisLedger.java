@@ -0,0 +1,110 @@
+package com.joaoac.cwm.service.costbasis;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.joaoac.cwm.dto.AssetCostBasis;
+import com.joaoac.cwm.enums.CostBasisMethod;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.service.price.PriceSnapshot;
+
+/**
+ * Motor incremental de custo de uma carteira. As transações devem ser aplicadas em
+ * ordem cronológica; cada nova transação atualiza o estado sem reprocessar o histórico.
+ */
+public class CostBasisLedger {
+
+    // Escala dos valores expostos; os cálculos internos usam precisão DECIMAL128
+    private static final int OUTPUT_SCALE = 8;
+
+    private final CostBasisMethod method;
+    private final Map<String, AssetLots> assets = new TreeMap<>();
+    private LocalDateTime lastTransactionDate;
+
+    public CostBasisLedger(CostBasisMethod method) {
+        this.method = method;
+    }
+
+    /**
+     * Aplicar uma transação posterior (ou igual) à última aplicada
+     */
+    public void apply(String cryptocurrency, TransactionType transactionType, BigDecimal quantity,
+                      BigDecimal totalValue, LocalDateTime transactionDate) {
+        if (lastTransactionDate != null && transactionDate.isBefore(lastTransactionDate)) {
+            throw new IllegalStateException("Transação fora de ordem cronológica: " + transactionDate);
+        }
+        lastTransactionDate = transactionDate;
+
+        AssetLots lots = assets.computeIfAbsent(cryptocurrency, crypto -> new AssetLots(method));
+        if (transactionType == TransactionType.BUY) {
+            lots.buy(transactionDate, quantity, totalValue);
+        } else if (transactionType == TransactionType.SELL) {
+            lots.sell(quantity, totalValue);
+        }
+    }
+
+    public CostBasisMethod getMethod() {
+        return method;
+    }
+
+    public LocalDateTime getLastTransactionDate() {
+        return lastTransactionDate;
+    }
+
+    /**
+     * Posições por ativo, incluindo ativos já zerados que tiveram P&L realizado,
+     * com o P&L não realizado pelas cotações informadas
+     */
+    public List<AssetCostBasis> getPositions(PriceSnapshot prices) {
+        List<AssetCostBasis> positions = new ArrayList<>(assets.size());
+        assets.forEach((crypto, lots) -> {
+            BigDecimal price = prices.priceOf(crypto);
+            BigDecimal unrealizedPnl = null;
+            if (lots.getQuantity().signum() == 0) {
+                unrealizedPnl = BigDecimal.ZERO;
+            } else if (price != null) {
+                unrealizedPnl = scale(lots.getQuantity().multiply(price).subtract(lots.getCostBasis()));
+            }
+            positions.add(new AssetCostBasis(crypto,
+                    scale(lots.getQuantity()),
+                    scale(lots.getCostBasis()),
+                    scale(lots.getAverageCost()),
+                    scale(lots.getRealizedPnl()),
+                    price,
+                    unrealizedPnl,
+                    lots.getOpenLots()));
+        });
+        return positions;
+    }
+
+    /**
+     * Lotes em aberto de todos os ativos, medida do tamanho do estado em memória
+     */
+    public long getOpenLotCount() {
+        long count = 0;
+        for (AssetLots lots : assets.values()) {
+            count += lots.getOpenLotCount();
+        }
+        return count;
+    }
+
+    public BigDecimal getRealizedPnl() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (AssetLots lots : assets.values()) {
+            total = total.add(lots.getRealizedPnl());
+        }
+        return scale(total);
+    }
+
+    static BigDecimal scale(BigDecimal value) {
+        if (value.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return value.setScale(OUTPUT_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,220 @@
+package com.joaoac.cwm.service.costbasis;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.joaoac.cwm.dto.AssetCostBasis;
+import com.joaoac.cwm.dto.CostBasisReport;
+import com.joaoac.cwm.dto.TransactionResponse;
+import com.joaoac.cwm.enums.CostBasisMethod;
+import com.joaoac.cwm.enums.LedgerEventType;
+import com.joaoac.cwm.model.LedgerEvent;
+import com.joaoac.cwm.repository.LedgerEventRepository;
+import com.joaoac.cwm.repository.TransactionFilter;
+import com.joaoac.cwm.repository.TransactionRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.WalletService;
+import com.joaoac.cwm.service.price.PriceCache;
+import com.joaoac.cwm.service.price.PriceSnapshot;
+
+/**
+ * Calcula lotes, custo médio e P&L realizado e não realizado de uma carteira.
+ * <p>
+ * O {@link CostBasisLedger} de cada carteira e método fica em memória, marcado
+ * com a sequência do ledger de transações (wallets.ledger_sequence) que ele
+ * reflete. Toda escrita de transação, em qualquer instância, avança essa
+ * sequência e grava um evento; a leitura compara a sequência e aplica só os
+ * eventos CREATED novos, em ordem cronológica. Alteração, remoção ou compra com
+ * data anterior à última aplicada exige o replay do histórico pelo cursor do banco.
+ */
+@Service
+public class CostBasisService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private PriceCache priceCache;
+
+    @Value("${cwm.export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Acima disso o replay pelo cursor sai mais barato que carregar os eventos
+    @Value("${cwm.cost-basis.max-catch-up:1000}")
+    private int maxCatchUp;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<LedgerKey, CachedLedger> ledgers;
+
+    public CostBasisService(PlatformTransactionManager transactionManager,
+                            @Value("${cwm.cost-basis.max-lots:2000000}") long maxLots,
+                            @Value("${cwm.cost-basis.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Limite pelo total de lotes em aberto: uma carteira de compras FIFO guarda um lote por compra
+        this.ledgers = Caffeine.newBuilder()
+                .maximumWeight(maxLots)
+                .<LedgerKey, CachedLedger>weigher((key, cached) -> cached.weight)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Montar o estado de custo da carteira pelo método informado, percorrendo todo o histórico
+     */
+    public CostBasisLedger buildLedger(Long walletId, CostBasisMethod method) {
+        walletService.validateWalletExists(walletId);
+        CachedLedger replayed = new CachedLedger();
+        replay(walletId, method, replayed);
+        return replayed.ledger;
+    }
+
+    /**
+     * Relatório de custo e P&L da carteira; o não realizado usa as cotações do {@link PriceCache}
+     */
+    public CostBasisReport report(Long walletId, CostBasisMethod method) {
+        walletService.validateWalletExists(walletId);
+        PriceSnapshot prices = priceCache.getSnapshot();
+
+        LedgerKey key = new LedgerKey(walletId, method);
+        CachedLedger cached = ledgers.get(key, k -> new CachedLedger());
+        // Leitores da mesma carteira e método esperam uma única atualização
+        cached.lock.lock();
+        try {
+            refresh(walletId, method, cached);
+            // O peso é lido na escrita da entrada: regravar para o cache pesar o estado atual
+            cached.weight = (int) Math.min(Integer.MAX_VALUE, Math.max(1, cached.ledger.getOpenLotCount()));
+            ledgers.asMap().replace(key, cached, cached);
+            CostBasisLedger ledger = cached.ledger;
+            List<AssetCostBasis> positions = ledger.getPositions(prices);
+            return new CostBasisReport(walletId, method, ledger.getRealizedPnl(),
+                    unrealizedPnl(positions), prices.fetchedAt(), positions);
+        } finally {
+            cached.lock.unlock();
+        }
+    }
+
+    private static BigDecimal unrealizedPnl(List<AssetCostBasis> positions) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (AssetCostBasis position : positions) {
+            if (position.unrealizedPnl() != null) {
+                total = total.add(position.unrealizedPnl());
+            }
+        }
+        return CostBasisLedger.scale(total);
+    }
+
+    private void refresh(Long walletId, CostBasisMethod method, CachedLedger cached) {
+        if (cached.ledger != null) {
+            long current = walletRepository.findLedgerSequence(walletId)
+                    .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + walletId));
+            if (current == cached.sequence || catchUp(walletId, cached, current)) {
+                return;
+            }
+        }
+        replay(walletId, method, cached);
+    }
+
+    // Aplica os eventos posteriores ao estado em memória; false quando é preciso refazer o histórico
+    private boolean catchUp(Long walletId, CachedLedger cached, long current) {
+        long pending = current - cached.sequence;
+        if (pending < 0 || pending > maxCatchUp) {
+            return false;
+        }
+        List<LedgerEvent> events = ledgerEventRepository.findAfter(walletId, cached.sequence,
+                PageRequest.of(0, (int) pending));
+        if (events.size() < pending) {
+            return false;
+        }
+
+        // Confere tudo antes de aplicar: o estado só muda se todos os eventos couberem no fim
+        LocalDateTime lastDate = cached.lastDate;
+        Long lastId = cached.lastId;
+        for (LedgerEvent event : events) {
+            if (event.getEventType() != LedgerEventType.CREATED
+                    || !isAfter(event.getTransactionDate(), event.getTransactionId(), lastDate, lastId)) {
+                return false;
+            }
+            lastDate = event.getTransactionDate();
+            lastId = event.getTransactionId();
+        }
+
+        for (LedgerEvent event : events) {
+            cached.ledger.apply(event.getCryptocurrency(), event.getTransactionType(), event.getQuantity(),
+                    event.getTotalValue(), event.getTransactionDate());
+        }
+        cached.sequence = events.get(events.size() - 1).getSequence();
+        cached.lastDate = lastDate;
+        cached.lastId = lastId;
+        return true;
+    }
+
+    private void replay(Long walletId, CostBasisMethod method, CachedLedger cached) {
+        CostBasisLedger ledger = new CostBasisLedger(method);
+        CachedLedger replayed = new CachedLedger();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // Sequência lida antes do histórico: uma escrita concorrente pode entrar no cursor e
+            // reaparecer como evento, mas não estará depois da última chave e força outro replay
+            replayed.sequence = walletRepository.findLedgerSequence(walletId).orElse(0L);
+            try (Stream<TransactionResponse> transactions =
+                         transactionRepository.streamAll(TransactionFilter.byWallet(walletId), fetchSize)) {
+                transactions.forEach(t -> {
+                    ledger.apply(t.cryptocurrency(), t.transactionType(), t.quantity(),
+                            t.totalValue(), t.transactionDate());
+                    replayed.lastDate = t.transactionDate();
+                    replayed.lastId = t.id();
+                });
+            }
+        });
+        cached.ledger = ledger;
+        cached.sequence = replayed.sequence;
+        cached.lastDate = replayed.lastDate;
+        cached.lastId = replayed.lastId;
+    }
+
+    // Ordem do cursor de replay: (transactionDate, id)
+    private static boolean isAfter(LocalDateTime date, Long id, LocalDateTime lastDate, Long lastId) {
+        if (lastDate == null) {
+            return true;
+        }
+        int comparison = date.compareTo(lastDate);
+        return comparison > 0 || (comparison == 0 && id > lastId);
+    }
+
+    private record LedgerKey(Long walletId, CostBasisMethod method) {
+    }
+
+    // Estado de uma carteira e método; campos protegidos pelo lock
+    private static final class CachedLedger {
+        // ReentrantLock em vez de synchronized: não fixa threads virtuais durante o replay
+        private final ReentrantLock lock = new ReentrantLock();
+        private CostBasisLedger ledger;
+        private long sequence;
+        private LocalDateTime lastDate;
+        private Long lastId;
+        // Lotes em aberto na última atualização; lido pelo weigher fora do lock
+        private volatile int weight = 1;
+    }
+}
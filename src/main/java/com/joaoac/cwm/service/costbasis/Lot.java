@@ -0,0 +1,41 @@
+package com.joaoac.cwm.service.costbasis;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lote em aberto: quantidade ainda não vendida de uma compra e seu custo unitário.
+ */
+final class Lot {
+
+    private final LocalDateTime acquiredAt;
+    private final BigDecimal unitCost;
+    private BigDecimal quantity;
+
+    Lot(LocalDateTime acquiredAt, BigDecimal quantity, BigDecimal unitCost) {
+        this.acquiredAt = acquiredAt;
+        this.quantity = quantity;
+        this.unitCost = unitCost;
+    }
+
+    LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+    BigDecimal getQuantity() {
+        return quantity;
+    }
+    BigDecimal getUnitCost() {
+        return unitCost;
+    }
+
+    // Retira até a quantidade pedida e devolve quanto foi efetivamente retirado
+    BigDecimal take(BigDecimal requested) {
+        BigDecimal taken = quantity.min(requested);
+        quantity = quantity.subtract(taken);
+        return taken;
+    }
+
+    boolean isEmpty() {
+        return quantity.signum() <= 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.joaoac.cwm.service.ingest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+
+/**
+ * Compra aceita pela ingestão assíncrona, como gravada no journal.
+ * O id é a sequência do journal (0 enquanto não foi gravada).
+ */
+record IngestEntry(long id,
+                   Long walletId,
+                   String cryptocurrency,
+                   BigDecimal quantity,
+                   BigDecimal pricePerUnit,
+                   BigDecimal totalValue,
+                   LocalDateTime transactionDate,
+                   String notes,
+                   LocalDateTime acceptedAt) {
+
+    static IngestEntry of(Long walletId, Transaction transaction, LocalDateTime acceptedAt) {
+        return new IngestEntry(0, walletId, transaction.getCryptocurrency(), transaction.getQuantity(),
+                transaction.getPricePerUnit(), transaction.getTotalValue(), transaction.getTransactionDate(),
+                transaction.getNotes(), acceptedAt);
+    }
+
+    IngestEntry withId(long sequence) {
+        return new IngestEntry(sequence, walletId, cryptocurrency, quantity, pricePerUnit, totalValue,
+                transactionDate, notes, acceptedAt);
+    }
+
+    Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setCryptocurrency(cryptocurrency);
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(quantity);
+        transaction.setPricePerUnit(pricePerUnit);
+        transaction.setTotalValue(totalValue);
+        transaction.setTransactionDate(transactionDate);
+        transaction.setNotes(notes);
+        transaction.setWalletId(walletId);
+        return transaction;
+    }
+}
@@ -0,0 +1,223 @@
+package com.joaoac.cwm.service.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Journal em disco das compras aceitas e ainda não confirmadas no banco.
+ * <p>
+ * Segmentos append-only (ingest-&lt;primeira sequência&gt;.log) com uma linha por
+ * entrada, prefixada pelo CRC32 do conteúdo para descartar uma linha cortada
+ * por uma queda. Um segmento fechado é apagado quando todas as suas entradas
+ * estão no banco.
+ * <p>
+ * {@link #append} é chamado por uma única thread; {@link #release} pode vir de outra.
+ */
+final class IngestionJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionJournal.class);
+
+    private static final String PREFIX = "ingest-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+
+    // Segmentos fechados, em ordem, com a última sequência de cada um
+    private final Deque<Segment> closed = new ArrayDeque<>();
+    private final ReentrantLock segmentsLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private Path currentPath;
+    private long currentLastSequence;
+
+    IngestionJournal(Path directory, long segmentBytes, boolean fsync, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ler os segmentos existentes e devolver, em ordem, as entradas posteriores à sequência confirmada.
+     * Segmentos já confirmados por inteiro são apagados.
+     */
+    List<IngestEntry> recover(long committedSequence) throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        List<IngestEntry> pending = new ArrayList<>();
+        for (Path segment : segments) {
+            long lastSequence = 0;
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    IngestEntry entry = decode(line);
+                    if (entry == null) {
+                        log.warn("Linha inválida ignorada no journal {}", segment.getFileName());
+                        continue;
+                    }
+                    lastSequence = Math.max(lastSequence, entry.id());
+                    if (entry.id() > committedSequence) {
+                        pending.add(entry);
+                    }
+                }
+            }
+
+            if (lastSequence <= committedSequence) {
+                Files.delete(segment);
+            } else {
+                closed.addLast(new Segment(segment, lastSequence));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Gravar as entradas e, com fsync ligado, só retornar quando estiverem no disco.
+     * Em caso de erro o segmento volta ao tamanho anterior.
+     */
+    void append(List<IngestEntry> entries) throws IOException {
+        if (channel == null || channel.size() >= segmentBytes) {
+            roll(entries.get(0).id());
+        }
+
+        StringBuilder lines = new StringBuilder(entries.size() * 256);
+        for (IngestEntry entry : entries) {
+            lines.append(encode(entry)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        long position = channel.position();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(position);
+                channel.position(position);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        currentLastSequence = entries.get(entries.size() - 1).id();
+    }
+
+    /**
+     * Apagar os segmentos fechados cujas entradas já estão todas no banco
+     */
+    void release(long committedSequence) {
+        segmentsLock.lock();
+        try {
+            while (!closed.isEmpty() && closed.peekFirst().lastSequence() <= committedSequence) {
+                Path path = closed.pollFirst().path();
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Não foi possível apagar o segmento {} do journal", path.getFileName(), e);
+                }
+            }
+        } finally {
+            segmentsLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        if (channel != null) {
+            channel.close();
+            segmentsLock.lock();
+            try {
+                closed.addLast(new Segment(currentPath, currentLastSequence));
+            } finally {
+                segmentsLock.unlock();
+            }
+        }
+
+        currentPath = directory.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+        channel = FileChannel.open(currentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        currentLastSequence = firstSequence - 1;
+
+        // A entrada do novo arquivo no diretório também precisa chegar ao disco
+        if (fsync) {
+            try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException e) {
+                log.debug("fsync do diretório do journal não suportado", e);
+            }
+        }
+    }
+
+    private String encode(IngestEntry entry) throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(entry);
+        return Long.toHexString(checksum(json)) + " " + json;
+    }
+
+    // Null para linhas cortadas ou corrompidas
+    private IngestEntry decode(String line) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+            return null;
+        }
+        String json = line.substring(separator + 1);
+        try {
+            if (Long.parseLong(line.substring(0, separator), 16) != checksum(json)) {
+                return null;
+            }
+            return objectMapper.readValue(json, IngestEntry.class);
+        } catch (NumberFormatException | JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String json) {
+        CRC32 crc = new CRC32();
+        crc.update(json.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private record Segment(Path path, long lastSequence) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.joaoac.cwm.service.ingest;
+
+/**
+ * Transação recusada pela ingestão assíncrona sem ter sido gravada no journal:
+ * fila cheia (o cliente deve tentar de novo mais tarde) ou ingestão indisponível.
+ */
+public class IngestionRejectedException extends RuntimeException {
+
+    private final boolean queueFull;
+
+    public IngestionRejectedException(boolean queueFull, String message) {
+        super(message, null, false, false);
+        this.queueFull = queueFull;
+    }
+
+    public boolean isQueueFull() {
+        return queueFull;
+    }
+}
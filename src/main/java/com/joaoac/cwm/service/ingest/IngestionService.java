@@ -0,0 +1,525 @@
+package com.joaoac.cwm.service.ingest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joaoac.cwm.dto.IngestionAck;
+import com.joaoac.cwm.dto.IngestionStatus;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.IngestCheckpoint;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.IngestCheckpointRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.HoldingLockManager;
+import com.joaoac.cwm.service.HoldingService;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletCache;
+import com.joaoac.cwm.service.ledger.LedgerService;
+import com.joaoac.cwm.service.snapshot.BalanceSnapshotService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Ingestão assíncrona de compras (write-behind).
+ * <p>
+ * A requisição valida a compra, reserva uma vaga na fila e espera apenas a
+ * gravação no journal local; a thread do journal agrupa as requisições
+ * simultâneas em uma única escrita e fsync. Uma segunda thread grava a fila
+ * no banco em lotes, cada lote em uma transação que também avança o
+ * checkpoint do nó; no startup o journal é relido a partir do checkpoint,
+ * então uma compra confirmada com 202 é gravada exatamente uma vez.
+ * <p>
+ * Só compras: não dependem de saldo, então podem ser confirmadas antes de
+ * chegar ao banco. Com a fila cheia a requisição é recusada na hora.
+ */
+@Service
+public class IngestionService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
+
+    // Janela usada para calcular a vazão de gravação
+    private static final long THROUGHPUT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private IngestCheckpointRepository ingestCheckpointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cwm.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cwm.ingest.node-id:local}")
+    private String nodeId;
+
+    @Value("${cwm.ingest.queue-capacity:10000}")
+    private int capacity;
+
+    @Value("${cwm.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cwm.ingest.journal-dir:./data/ingest}")
+    private String journalDir;
+
+    @Value("${cwm.ingest.segment-size:64MB}")
+    private DataSize segmentSize;
+
+    @Value("${cwm.ingest.fsync:true}")
+    private boolean fsync;
+
+    @Value("${cwm.ingest.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    @Value("${cwm.ingest.append-timeout:5s}")
+    private Duration appendTimeout;
+
+    // Requisições esperando o journal; limitadas pelas vagas da fila
+    private final LinkedBlockingQueue<PendingAppend> incoming = new LinkedBlockingQueue<>();
+
+    // Entradas no journal esperando o banco
+    private final LinkedBlockingQueue<IngestEntry> queue = new LinkedBlockingQueue<>();
+
+    // Vagas da fila: reservadas na requisição, devolvidas depois do commit
+    private Semaphore permits = new Semaphore(0);
+
+    private IngestionJournal journal;
+    private Thread journalThread;
+    private Thread writerThread;
+
+    private volatile boolean accepting;
+    private volatile boolean stopping;
+    private volatile long stopDeadline;
+
+    // Usado só pela thread do journal
+    private long nextSequence;
+
+    private volatile long lastAcceptedId;
+    private volatile long lastCommittedId;
+    private volatile List<IngestEntry> inFlight = List.of();
+    private volatile int lastBatchSize;
+    private volatile long lastBatchMillis;
+    private volatile String lastError;
+    private final AtomicLong committedTotal = new AtomicLong();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+
+    // Lotes gravados na última janela: {instante em nanos, quantidade}
+    private final ArrayDeque<long[]> recentBatches = new ArrayDeque<>();
+    private final ReentrantLock recentBatchesLock = new ReentrantLock();
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        long committed = ingestCheckpointRepository.findById(nodeId)
+                .map(IngestCheckpoint::getLastSequence)
+                .orElse(0L);
+
+        journal = new IngestionJournal(Path.of(journalDir), segmentSize.toBytes(), fsync, objectMapper);
+        List<IngestEntry> pending = journal.recover(committed);
+
+        nextSequence = (pending.isEmpty() ? committed : pending.get(pending.size() - 1).id()) + 1;
+        lastAcceptedId = nextSequence - 1;
+        lastCommittedId = committed;
+
+        // Entradas recuperadas ocupam vagas: a fila pode começar acima da capacidade
+        permits = new Semaphore(capacity - pending.size());
+        queue.addAll(pending);
+        if (!pending.isEmpty()) {
+            log.info("Ingestão: {} entradas do journal serão regravadas a partir da sequência {}",
+                    pending.size(), committed + 1);
+        }
+
+        // Um start depois de stop (reinício sem nova instância) volta a atender
+        stopping = false;
+        journalThread = Thread.ofPlatform().name("cwm-ingest-journal").daemon().start(this::runJournal);
+        writerThread = Thread.ofPlatform().name("cwm-ingest-writer").daemon().start(this::runWriter);
+        accepting = true;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        accepting = false;
+        stopDeadline = System.nanoTime() + shutdownTimeout.toNanos();
+        stopping = true;
+
+        journalThread.join();
+        // Requisições que chegaram depois da última escrita do journal
+        PendingAppend late;
+        while ((late = incoming.poll()) != null) {
+            if (late.claimed().compareAndSet(false, true)) {
+                permits.release();
+                late.result().completeExceptionally(new IOException("Ingestão encerrada"));
+            }
+        }
+        writerThread.join(shutdownTimeout.plusSeconds(5).toMillis());
+        journal.close();
+
+        if (!queue.isEmpty()) {
+            log.warn("Ingestão: {} entradas ficaram no journal e serão gravadas no próximo startup", queue.size());
+        }
+    }
+
+    /**
+     * Aceitar uma compra para gravação assíncrona; retorna depois que ela está no journal
+     */
+    public IngestionAck submit(Long walletId, Transaction transaction) {
+        if (!accepting) {
+            throw new IngestionRejectedException(false, "Ingestão assíncrona indisponível");
+        }
+
+        transactionService.validateTransaction(transaction);
+        if (transaction.getTransactionType() != TransactionType.BUY) {
+            throw new IllegalArgumentException("Ingestão assíncrona aceita apenas compras");
+        }
+        if (!walletRepository.existsById(walletId)) {
+            throw new RuntimeException("Carteira não encontrada com ID: " + walletId);
+        }
+        if (transaction.getTotalValue() == null) {
+            transaction.calculateTotalValue();
+        }
+
+        if (!permits.tryAcquire()) {
+            rejectedTotal.incrementAndGet();
+            throw new IngestionRejectedException(true, "Fila de ingestão cheia");
+        }
+
+        PendingAppend pending = new PendingAppend(IngestEntry.of(walletId, transaction, LocalDateTime.now()),
+                new CompletableFuture<>(), new AtomicBoolean());
+        incoming.add(pending);
+
+        IngestEntry entry = awaitJournal(pending);
+        return new IngestionAck(entry.id(), walletId, entry.acceptedAt());
+    }
+
+    // Espera a escrita no journal por até cwm.ingest.append-timeout
+    private IngestEntry awaitJournal(PendingAppend pending) {
+        try {
+            try {
+                return pending.result().get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Ainda não foi tomada pela thread do journal: desiste sem ter gravado
+                if (pending.claimed().compareAndSet(false, true)) {
+                    permits.release();
+                    rejectedTotal.incrementAndGet();
+                    throw new IngestionRejectedException(false, "Journal de ingestão sem resposta");
+                }
+            }
+            // Já está sendo gravada: o resultado chega assim que a escrita termina
+            return pending.result().get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IngestionRejectedException(false,
+                    "Journal de ingestão sem resposta; a compra pode ter sido aceita");
+        } catch (ExecutionException e) {
+            throw new IngestionRejectedException(false, "Falha ao gravar no journal: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestionRejectedException(false, "Requisição interrompida");
+        }
+    }
+
+    /**
+     * Estado atual da fila e da gravação
+     */
+    public IngestionStatus getStatus() {
+        long accepted = lastAcceptedId;
+        long committed = lastCommittedId;
+
+        List<IngestEntry> batch = inFlight;
+        IngestEntry oldest = batch.isEmpty() ? queue.peek() : batch.get(0);
+        long oldestMillis = oldest == null ? 0
+                : Math.max(Duration.between(oldest.acceptedAt(), LocalDateTime.now()).toMillis(), 0);
+
+        return new IngestionStatus(enabled, accepting, queue.size() + batch.size(), capacity,
+                accepted, committed, accepted - committed, oldestMillis,
+                committedTotal.get(), rejectedTotal.get(), committedPerSecond(),
+                lastBatchSize, lastBatchMillis, lastError);
+    }
+
+    /**
+     * Publicar fila, atraso e contadores como métricas (cwm.ingest.*)
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cwm.ingest.queue.size", queue, LinkedBlockingQueue::size)
+                .description("Entradas no journal esperando gravação no banco")
+                .register(registry);
+        Gauge.builder("cwm.ingest.lag", this, service -> service.lastAcceptedId - service.lastCommittedId)
+                .description("Sequências aceitas e ainda não confirmadas no banco")
+                .register(registry);
+        FunctionCounter.builder("cwm.ingest.committed", committedTotal, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder("cwm.ingest.rejected", rejectedTotal, AtomicLong::get)
+                .description("Requisições recusadas com a fila cheia")
+                .register(registry);
+    }
+
+    // Agrupa as requisições que chegaram juntas em uma escrita no journal
+    private void runJournal() {
+        List<PendingAppend> group = new ArrayList<>(batchSize);
+        while (!stopping || !incoming.isEmpty()) {
+            try {
+                PendingAppend first = incoming.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                incoming.drainTo(group, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            // Requisições que desistiram por tempo já devolveram a vaga
+            group.removeIf(pending -> !pending.claimed().compareAndSet(false, true));
+            if (group.isEmpty()) {
+                continue;
+            }
+
+            List<IngestEntry> entries = new ArrayList<>(group.size());
+            for (PendingAppend pending : group) {
+                entries.add(pending.entry().withId(nextSequence++));
+            }
+
+            try {
+                journal.append(entries);
+            } catch (IOException | RuntimeException e) {
+                // Qualquer falha encerra só este grupo: a thread continua atendendo as próximas requisições
+                log.error("Falha ao gravar no journal de ingestão", e);
+                lastError = "journal: " + e.getMessage();
+                nextSequence -= entries.size();
+                permits.release(group.size());
+                group.forEach(pending -> pending.result().completeExceptionally(e));
+                group.clear();
+                continue;
+            }
+
+            lastAcceptedId = entries.get(entries.size() - 1).id();
+            queue.addAll(entries);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(entries.get(i));
+            }
+            group.clear();
+        }
+    }
+
+    // Grava a fila no banco em lotes, repetindo o mesmo lote até conseguir
+    private void runWriter() {
+        List<IngestEntry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            // Desligando: o que não couber no prazo continua no journal
+            if (stopping && System.nanoTime() > stopDeadline) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                try {
+                    IngestEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (stopping && !journalThread.isAlive() && queue.isEmpty()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            inFlight = List.copyOf(batch);
+            if (flushWithRetry(batch)) {
+                batch.clear();
+            } else {
+                // Desligando com o banco indisponível: o lote continua no journal
+                queue.addAll(batch);
+                inFlight = List.of();
+                return;
+            }
+            inFlight = List.of();
+        }
+    }
+
+    private boolean flushWithRetry(List<IngestEntry> batch) {
+        long delay = 100;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                persistBatch(batch);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar lote de {} transações da ingestão; nova tentativa em {} ms",
+                        batch.size(), delay, e);
+                lastError = e.getMessage();
+                if (stopping && System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) > stopDeadline) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+                continue;
+            }
+
+            long committed = batch.get(batch.size() - 1).id();
+            lastCommittedId = committed;
+            lastBatchSize = batch.size();
+            lastBatchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastError = null;
+            committedTotal.addAndGet(batch.size());
+            recordBatch(batch.size());
+            permits.release(batch.size());
+            journal.release(committed);
+            return true;
+        }
+    }
+
+    // Um lote, uma transação: transações, ledger, posições, snapshots afetados e checkpoint
+    private void persistBatch(List<IngestEntry> batch) {
+        Map<Long, Set<String>> positions = new HashMap<>();
+        for (IngestEntry entry : batch) {
+            positions.computeIfAbsent(entry.walletId(), id -> new TreeSet<>()).add(entry.cryptocurrency());
+        }
+
+        holdingLockManager.executeLocked(positions, () -> {
+            Set<Long> existing = new HashSet<>(walletRepository.findExistingIds(positions.keySet()));
+            Map<Long, Map<String, BigDecimal>> deltas = new HashMap<>();
+            Map<Long, LocalDateTime> earliestDates = new HashMap<>();
+            // Em ordem de ID: as carteiras são travadas pela reserva de sequência do ledger
+            Map<Long, List<Transaction>> created = new TreeMap<>();
+
+            for (IngestEntry entry : batch) {
+                Long walletId = entry.walletId();
+                if (!existing.contains(walletId)) {
+                    log.warn("Ingestão: transação {} descartada, carteira {} não existe mais", entry.id(), walletId);
+                    continue;
+                }
+
+                Transaction transaction = entry.toTransaction();
+                transaction.setWallet(entityManager.getReference(Wallet.class, walletId));
+                entityManager.persist(transaction);
+                created.computeIfAbsent(walletId, id -> new ArrayList<>()).add(transaction);
+
+                deltas.computeIfAbsent(walletId, id -> new HashMap<>())
+                        .merge(entry.cryptocurrency(), entry.quantity(), BigDecimal::add);
+                earliestDates.merge(walletId, entry.transactionDate(),
+                        (a, b) -> a.isBefore(b) ? a : b);
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            created.forEach(ledgerService::recordCreated);
+            earliestDates.forEach(balanceSnapshotService::invalidateFrom);
+            deltas.forEach((walletId, quantities) ->
+                    quantities.forEach((crypto, delta) -> holdingService.adjust(walletId, crypto, delta)));
+            ingestCheckpointRepository.save(new IngestCheckpoint(nodeId, batch.get(batch.size() - 1).id(),
+                    LocalDateTime.now()));
+            return null;
+        });
+
+        positions.keySet().forEach(walletCache::invalidate);
+    }
+
+    private void recordBatch(int size) {
+        long now = System.nanoTime();
+        recentBatchesLock.lock();
+        try {
+            recentBatches.addLast(new long[] { now, size });
+            while (now - recentBatches.peekFirst()[0] > THROUGHPUT_WINDOW_NANOS) {
+                recentBatches.pollFirst();
+            }
+        } finally {
+            recentBatchesLock.unlock();
+        }
+    }
+
+    private double committedPerSecond() {
+        long now = System.nanoTime();
+        long total = 0;
+        recentBatchesLock.lock();
+        try {
+            for (long[] batch : recentBatches) {
+                if (now - batch[0] <= THROUGHPUT_WINDOW_NANOS) {
+                    total += batch[1];
+                }
+            }
+        } finally {
+            recentBatchesLock.unlock();
+        }
+        return total / (double) TimeUnit.NANOSECONDS.toSeconds(THROUGHPUT_WINDOW_NANOS);
+    }
+
+    // claimed: tomada pela thread do journal ou abandonada pela requisição, o que vier primeiro
+    private record PendingAppend(IngestEntry entry, CompletableFuture<IngestEntry> result, AtomicBoolean claimed) {
+    }
+}
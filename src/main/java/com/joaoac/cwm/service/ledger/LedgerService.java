@@ -0,0 +1,277 @@
+package com.joaoac.cwm.service.ledger;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.joaoac.cwm.dto.LedgerEventResponse;
+import com.joaoac.cwm.dto.LedgerHoldings;
+import com.joaoac.cwm.dto.LedgerPage;
+import com.joaoac.cwm.model.Asset;
+import com.joaoac.cwm.model.LedgerEvent;
+import com.joaoac.cwm.model.LedgerSnapshot;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.repository.LedgerEventRepository;
+import com.joaoac.cwm.repository.LedgerSnapshotRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.AssetRegistry;
+import com.joaoac.cwm.service.HoldingLockManager;
+import com.joaoac.cwm.service.HoldingService;
+import com.joaoac.cwm.service.WalletCache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Ledger de eventos das transações (criação, alteração, remoção), só de inserção,
+ * com sequência contígua por carteira. A tabela de transações e as posições
+ * continuam sendo o estado atual; o ledger é o histórico do qual as posições
+ * podem ser reconstruídas (último snapshot mais os eventos seguintes).
+ * <p>
+ * A reserva de sequência atualiza a linha da carteira, que fica travada até o
+ * commit: os eventos de uma carteira entram um lote por vez, na ordem em que
+ * foram numerados. Os métodos de gravação devem ser chamados dentro da transação
+ * da escrita e antes de alterar as posições, mantendo a ordem carteira → posições.
+ */
+@Service
+public class LedgerService {
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    @Autowired
+    private AssetRegistry assetRegistry;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${cwm.ledger.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cwm.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${cwm.pagination.max-size:500}")
+    private int maxPageSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public LedgerService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Registrar a criação de uma transação (já com ID)
+     */
+    public void recordCreated(Transaction transaction) {
+        append(LedgerEvent.created(transaction));
+    }
+
+    /**
+     * Registrar a alteração de uma transação; {@code previous} deve ter os valores anteriores ao merge
+     */
+    public void recordAmended(Transaction previous, Transaction current) {
+        append(LedgerEvent.amended(previous, current));
+    }
+
+    /**
+     * Registrar a remoção de uma transação
+     */
+    public void recordVoided(Transaction transaction) {
+        append(LedgerEvent.voided(transaction));
+    }
+
+    /**
+     * Registrar a criação de várias transações de uma carteira (importação e ingestão).
+     * Grava em lotes JDBC e limpa o contexto de persistência a cada lote.
+     */
+    public void recordCreated(Long walletId, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long sequence = reserve(walletId, transactions.size());
+        int written = 0;
+        for (Transaction transaction : transactions) {
+            LedgerEvent event = LedgerEvent.created(transaction);
+            event.setSequence(sequence++);
+            entityManager.persist(event);
+            if (++written % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void append(LedgerEvent event) {
+        event.setSequence(reserve(event.getWalletId(), 1));
+        ledgerEventRepository.save(event);
+    }
+
+    // Reserva {@code count} sequências consecutivas e retorna a primeira
+    private long reserve(Long walletId, int count) {
+        if (walletRepository.advanceLedgerSequence(walletId, count) == 0) {
+            throw new RuntimeException("Carteira não encontrada com ID: " + walletId);
+        }
+        long last = walletRepository.findLedgerSequence(walletId)
+                .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + walletId));
+        return last - count + 1;
+    }
+
+    /**
+     * Buscar uma página de eventos da carteira a partir de uma sequência
+     */
+    public LedgerPage findPage(Long walletId, Long after, Integer size) {
+        validateWalletExists(walletId);
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        long from = after == null ? 0L : after;
+
+        // Uma linha a mais indica se existe página seguinte
+        List<LedgerEventResponse> rows = ledgerEventRepository
+                .findAfter(walletId, from, PageRequest.of(0, pageSize + 1)).stream()
+                .map(LedgerEventResponse::from)
+                .toList();
+        if (rows.size() <= pageSize) {
+            return new LedgerPage(rows, pageSize, null);
+        }
+        List<LedgerEventResponse> content = rows.subList(0, pageSize);
+        return new LedgerPage(List.copyOf(content), pageSize, content.get(pageSize - 1).sequence());
+    }
+
+    /**
+     * Saldo da carteira reconstruído do ledger, sem alterar as posições
+     */
+    public LedgerHoldings getHoldings(Long walletId) {
+        validateWalletExists(walletId);
+        LedgerState state = readOnlyTemplate.execute(status -> replay(walletId));
+        return toHoldings(walletId, state);
+    }
+
+    /**
+     * Reescrever as posições da carteira a partir do ledger (reparo da projeção)
+     */
+    public LedgerHoldings rebuildHoldings(Long walletId) {
+        validateWalletExists(walletId);
+
+        // Todas as posições da carteira: nenhuma venda confere saldo enquanto as posições são reescritas
+        List<String> cryptocurrencies = assetRegistry.getAssets().stream().map(Asset::getSymbol).toList();
+        LedgerState state = holdingLockManager.executeLocked(walletId, cryptocurrencies, () -> {
+            // Com a carteira travada nenhum evento entra entre o replay e a gravação
+            walletRepository.findByIdForUpdate(walletId)
+                    .orElseThrow(() -> new RuntimeException("Carteira não encontrada com ID: " + walletId));
+            LedgerState replayed = replay(walletId);
+
+            Map<String, BigDecimal> current = holdingService.getQuantities(walletId);
+            Set<String> touched = new TreeSet<>(current.keySet());
+            touched.addAll(replayed.getQuantities().keySet());
+            for (String crypto : touched) {
+                BigDecimal target = replayed.getQuantities().getOrDefault(crypto, BigDecimal.ZERO);
+                holdingService.adjust(walletId, crypto, target.subtract(current.getOrDefault(crypto, BigDecimal.ZERO)));
+            }
+            return replayed;
+        });
+
+        walletCache.invalidate(walletId);
+        return toHoldings(walletId, state);
+    }
+
+    /**
+     * Gravar um snapshot do ledger da carteira, se houver eventos depois do último,
+     * e descartar os anteriores; retorna a sequência gravada ou null
+     */
+    public Long snapshot(Long walletId) {
+        return transactionTemplate.execute(status -> {
+            LedgerState state = replay(walletId);
+            if (state.getReplayed() == 0) {
+                return null;
+            }
+            List<LedgerSnapshot> rows = new ArrayList<>();
+            state.getQuantities().forEach((crypto, quantity) ->
+                    rows.add(new LedgerSnapshot(walletId, state.getSequence(), crypto, quantity)));
+            ledgerSnapshotRepository.saveAll(rows);
+            ledgerSnapshotRepository.deleteBefore(walletId, state.getSequence());
+            return state.getSequence();
+        });
+    }
+
+    // Último snapshot mais os eventos seguintes, lidos pelo cursor sem acumular no contexto de persistência
+    private LedgerState replay(Long walletId) {
+        List<LedgerSnapshot> snapshot = ledgerSnapshotRepository.findLatest(walletId);
+        LedgerState state;
+        if (snapshot.isEmpty()) {
+            state = new LedgerState();
+        } else {
+            Map<String, BigDecimal> quantities = new HashMap<>();
+            for (LedgerSnapshot row : snapshot) {
+                quantities.put(row.getCryptocurrency(), row.getQuantity());
+            }
+            state = new LedgerState(snapshot.get(0).getSequence(), quantities);
+            snapshot.forEach(entityManager::detach);
+        }
+
+        try (Stream<LedgerEvent> events = ledgerEventRepository.streamAfter(walletId, state.getSequence())) {
+            events.forEach(event -> {
+                state.apply(event);
+                entityManager.detach(event);
+            });
+        }
+        return state;
+    }
+
+    /**
+     * Remover o ledger e os snapshots de uma carteira
+     */
+    public void deleteByWalletId(Long walletId) {
+        ledgerSnapshotRepository.deleteByWalletId(walletId);
+        ledgerEventRepository.deleteByWalletId(walletId);
+    }
+
+    /**
+     * Remover até {@code limit} eventos de uma carteira; retorna quantos foram removidos
+     */
+    public int deleteChunkByWalletId(Long walletId, int limit) {
+        return ledgerEventRepository.deleteChunkByWalletId(walletId, limit);
+    }
+
+    private void validateWalletExists(Long walletId) {
+        if (!walletRepository.existsById(walletId)) {
+            throw new RuntimeException("Carteira não encontrada com ID: " + walletId);
+        }
+    }
+
+    private static LedgerHoldings toHoldings(Long walletId, LedgerState state) {
+        return new LedgerHoldings(walletId, state.getSequence(), state.getSnapshotSequence(), state.getReplayed(),
+                state.getBalances());
+    }
+}
@@ -0,0 +1,84 @@
+package com.joaoac.cwm.service.ledger;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.joaoac.cwm.dto.LedgerSnapshotResult;
+import com.joaoac.cwm.repository.WalletRepository;
+
+/**
+ * Grava periodicamente snapshots do ledger das carteiras que acumularam ao menos
+ * {@code cwm.ledger.snapshot-interval} eventos desde o último, limitando o replay
+ * de uma reconstrução a esse número de eventos.
+ */
+@Component
+public class LedgerSnapshotJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotJob.class);
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Value("${cwm.ledger.snapshot-interval:1000}")
+    private long snapshotInterval;
+
+    @Value("${cwm.ledger.wallet-chunk:500}")
+    private int walletChunk;
+
+    // Uma execução por vez nesta instância (agendada ou manual)
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${cwm.ledger.snapshot-delay:5m}",
+               initialDelayString = "${cwm.ledger.snapshot-delay:5m}")
+    public void scheduledRun() {
+        LedgerSnapshotResult result = run();
+        if (result != null && result.snapshotsCreated() > 0) {
+            log.info("Snapshots do ledger: {} carteiras verificadas, {} novos snapshots",
+                    result.walletsProcessed(), result.snapshotsCreated());
+        }
+    }
+
+    /**
+     * Gravar os snapshots pendentes; null se já houver uma execução em andamento
+     */
+    public LedgerSnapshotResult run() {
+        if (!running.tryLock()) {
+            return null;
+        }
+        try {
+            int wallets = 0;
+            int snapshots = 0;
+            Long after = 0L;
+            List<Long> walletIds;
+            while (!(walletIds = walletRepository.findIdsNeedingLedgerSnapshot(after, snapshotInterval,
+                    PageRequest.of(0, walletChunk))).isEmpty()) {
+                for (Long walletId : walletIds) {
+                    wallets++;
+                    try {
+                        if (ledgerService.snapshot(walletId) != null) {
+                            snapshots++;
+                        }
+                    } catch (RuntimeException e) {
+                        // Carteira removida ou snapshot gravado por outra instância: segue para a próxima
+                        log.warn("Snapshot do ledger da carteira {} não gravado: {}", walletId, e.getMessage());
+                    }
+                }
+                after = walletIds.get(walletIds.size() - 1);
+            }
+            return new LedgerSnapshotResult(wallets, snapshots);
+        } finally {
+            running.unlock();
+        }
+    }
+}
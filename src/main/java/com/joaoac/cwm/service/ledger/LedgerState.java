@@ -0,0 +1,92 @@
+package com.joaoac.cwm.service.ledger;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.joaoac.cwm.model.LedgerEvent;
+
+/**
+ * Quantidades de uma carteira reconstruídas pelo replay do ledger a partir de
+ * um snapshot (ou do início). As sequências de uma carteira são contíguas,
+ * então um evento fora de ordem indica um ledger incompleto e interrompe o replay.
+ */
+public class LedgerState {
+
+    private final long snapshotSequence;
+    private final Map<String, BigDecimal> quantities;
+    private long sequence;
+    private long replayed;
+
+    public LedgerState() {
+        this(0L, Map.of());
+    }
+
+    public LedgerState(long snapshotSequence, Map<String, BigDecimal> quantities) {
+        this.snapshotSequence = snapshotSequence;
+        this.sequence = snapshotSequence;
+        this.quantities = new TreeMap<>(quantities);
+    }
+
+    /**
+     * Aplicar o próximo evento da carteira
+     */
+    public void apply(LedgerEvent event) {
+        if (event.getSequence() != sequence + 1) {
+            throw new IllegalStateException("Ledger da carteira " + event.getWalletId() +
+                    " fora de ordem: esperada sequência " + (sequence + 1) + ", lida " + event.getSequence());
+        }
+        switch (event.getEventType()) {
+            case CREATED -> add(event.getCryptocurrency(), event.signedQuantity());
+            case AMENDED -> {
+                add(event.getPreviousCryptocurrency(), event.previousSignedQuantity().negate());
+                add(event.getCryptocurrency(), event.signedQuantity());
+            }
+            case VOIDED -> add(event.getCryptocurrency(), event.signedQuantity().negate());
+        }
+        sequence = event.getSequence();
+        replayed++;
+    }
+
+    private void add(String cryptocurrency, BigDecimal delta) {
+        quantities.merge(cryptocurrency, delta, BigDecimal::add);
+    }
+
+    /**
+     * Sequência do último evento aplicado
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Sequência do snapshot de partida (0 quando o replay começou do início)
+     */
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    /**
+     * Eventos aplicados depois do snapshot
+     */
+    public long getReplayed() {
+        return replayed;
+    }
+
+    /**
+     * Quantidades de todas as criptomoedas já movimentadas, inclusive zeradas
+     */
+    public Map<String, BigDecimal> getQuantities() {
+        return Collections.unmodifiableMap(quantities);
+    }
+
+    /**
+     * Mesmo critério do saldo atual: posições zeradas não aparecem
+     */
+    public Map<String, BigDecimal> getBalances() {
+        Map<String, BigDecimal> balances = new TreeMap<>(quantities);
+        balances.values().removeIf(quantity -> quantity.compareTo(BigDecimal.ZERO) <= 0);
+        return balances;
+    }
+}
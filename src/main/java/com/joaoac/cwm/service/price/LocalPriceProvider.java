@@ -0,0 +1,59 @@
+package com.joaoac.cwm.service.price;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cotações lidas de um arquivo JSON ({"BTC": 65000.00, ...}), relido a cada
+ * renovação do cache. Substitui um feed real em desenvolvimento e testes.
+ */
+@Component
+public class LocalPriceProvider implements PriceProvider {
+
+    private static final TypeReference<Map<String, BigDecimal>> PRICE_MAP = new TypeReference<>() {
+    };
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String location;
+
+    public LocalPriceProvider(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                              @Value("${cwm.prices.location:classpath:prices/local-prices.json}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.location = location;
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetchPrices(Collection<String> symbols) {
+        Resource resource = resourceLoader.getResource(location);
+        Map<String, BigDecimal> available;
+        try (InputStream input = resource.getInputStream()) {
+            available = objectMapper.readValue(input, PRICE_MAP);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler as cotações de " + location, e);
+        }
+
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (Map.Entry<String, BigDecimal> entry : available.entrySet()) {
+            String symbol = entry.getKey().toUpperCase();
+            if (symbols.contains(symbol) && entry.getValue() != null) {
+                prices.put(symbol, entry.getValue());
+            }
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,74 @@
+package com.joaoac.cwm.service.price;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.joaoac.cwm.service.TransactionService;
+
+/**
+ * Mantém o último {@link PriceSnapshot} com validade (TTL). O cache é limitado
+ * aos símbolos suportados e é renovado por inteiro: cada renovação faz uma
+ * única chamada ao {@link PriceProvider}, independente de quantas carteiras
+ * estão sendo avaliadas.
+ */
+@Component
+public class PriceCache {
+
+    @Autowired
+    private PriceProvider priceProvider;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private final Duration ttl;
+    private final Clock clock = Clock.systemUTC();
+
+    // ReentrantLock em vez de synchronized: não fixa threads virtuais durante a renovação
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile PriceSnapshot snapshot;
+
+    public PriceCache(@Value("${cwm.prices.ttl:30s}") Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Obter as cotações vigentes, renovando-as se expiradas
+     */
+    public PriceSnapshot getSnapshot() {
+        PriceSnapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            return current;
+        }
+
+        // Apenas uma thread renova; as demais aguardam e reutilizam o resultado
+        refreshLock.lock();
+        try {
+            current = snapshot;
+            if (current == null || isExpired(current)) {
+                current = new PriceSnapshot(
+                        priceProvider.fetchPrices(transactionService.getSupportedCryptocurrencies()),
+                        clock.instant());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Descartar as cotações atuais; a próxima leitura busca novas
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private boolean isExpired(PriceSnapshot current) {
+        return clock.instant().isAfter(current.fetchedAt().plus(ttl));
+    }
+}
@@ -0,0 +1,19 @@
+package com.joaoac.cwm.service.price;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Fonte de cotações. Implementações podem consultar uma API externa ou
+ * um arquivo local; o {@link PriceCache} chama {@link #fetchPrices} uma
+ * vez por renovação, com todos os símbolos suportados.
+ */
+public interface PriceProvider {
+
+    /**
+     * Buscar a cotação atual dos símbolos informados. Símbolos sem cotação
+     * ficam fora do mapa retornado.
+     */
+    Map<String, BigDecimal> fetchPrices(Collection<String> symbols);
+}
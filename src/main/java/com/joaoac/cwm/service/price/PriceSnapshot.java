@@ -0,0 +1,19 @@
+package com.joaoac.cwm.service.price;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Cotações obtidas em uma única renovação, imutáveis após criadas.
+ */
+public record PriceSnapshot(Map<String, BigDecimal> prices, Instant fetchedAt) {
+
+    public PriceSnapshot {
+        prices = Map.copyOf(prices);
+    }
+
+    public BigDecimal priceOf(String cryptocurrency) {
+        return prices.get(cryptocurrency);
+    }
+}
@@ -0,0 +1,109 @@
+package com.joaoac.cwm.service.price;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.joaoac.cwm.dto.PositionValuation;
+import com.joaoac.cwm.dto.WalletValuation;
+import com.joaoac.cwm.model.Holding;
+import com.joaoac.cwm.repository.HoldingRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+import com.joaoac.cwm.service.WalletService;
+
+/**
+ * Avalia carteiras multiplicando as posições pela cotação em cache.
+ * A avaliação em lote usa um único snapshot de cotações e busca as
+ * posições com uma consulta por bloco de carteiras.
+ */
+@Service
+public class ValuationService {
+
+    // Escala dos valores de mercado retornados
+    private static final int VALUE_SCALE = 2;
+
+    @Autowired
+    private HoldingRepository holdingRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private PriceCache priceCache;
+
+    @Value("${cwm.prices.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Avaliar uma carteira
+     */
+    public WalletValuation valueWallet(Long walletId) {
+        walletService.validateWalletExists(walletId);
+        return toValuation(walletId, holdingRepository.findByWalletId(walletId), priceCache.getSnapshot());
+    }
+
+    /**
+     * Avaliar várias carteiras com as mesmas cotações; IDs inexistentes são ignorados
+     */
+    public List<WalletValuation> valueWallets(Collection<Long> walletIds) {
+        PriceSnapshot prices = priceCache.getSnapshot();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(walletIds));
+        List<WalletValuation> valuations = new ArrayList<>(ids.size());
+
+        // Blocos limitam o tamanho da cláusula IN
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+
+            Map<Long, List<Holding>> holdingsByWallet = new TreeMap<>();
+            for (Long walletId : walletRepository.findExistingIds(chunk)) {
+                holdingsByWallet.put(walletId, new ArrayList<>());
+            }
+            if (holdingsByWallet.isEmpty()) {
+                continue;
+            }
+            for (Holding holding : holdingRepository.findByWalletIdIn(holdingsByWallet.keySet())) {
+                holdingsByWallet.get(holding.getWalletId()).add(holding);
+            }
+
+            holdingsByWallet.forEach((walletId, holdings) ->
+                    valuations.add(toValuation(walletId, holdings, prices)));
+        }
+        return valuations;
+    }
+
+    private WalletValuation toValuation(Long walletId, List<Holding> holdings, PriceSnapshot prices) {
+        BigDecimal totalValue = BigDecimal.ZERO;
+        List<PositionValuation> positions = new ArrayList<>();
+
+        for (Holding holding : holdings) {
+            // Mesmo critério do saldo: posições zeradas não aparecem
+            if (holding.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+
+            BigDecimal price = prices.priceOf(holding.getCryptocurrency());
+            BigDecimal value = null;
+            if (price != null) {
+                value = holding.getQuantity().multiply(price).setScale(VALUE_SCALE, RoundingMode.HALF_EVEN);
+                totalValue = totalValue.add(value);
+            }
+            positions.add(new PositionValuation(holding.getCryptocurrency(), holding.getQuantity(), price, value));
+        }
+
+        positions.sort((a, b) -> a.cryptocurrency().compareTo(b.cryptocurrency()));
+        return new WalletValuation(walletId, totalValue.setScale(VALUE_SCALE, RoundingMode.HALF_EVEN),
+                prices.fetchedAt(), positions);
+    }
+}
@@ -0,0 +1,73 @@
+package com.joaoac.cwm.service.snapshot;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.joaoac.cwm.dto.SnapshotBuildResult;
+import com.joaoac.cwm.repository.WalletRepository;
+
+/**
+ * Consolida diariamente os snapshots de todas as carteiras. As carteiras são
+ * percorridas em blocos por ID, e cada carteira retoma do seu último snapshot,
+ * então o primeiro backfill de uma base grande pode ser interrompido e
+ * continuado na execução seguinte.
+ */
+@Component
+public class BalanceSnapshotJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotJob.class);
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Value("${cwm.snapshots.wallet-chunk:500}")
+    private int walletChunk;
+
+    // Uma execução por vez nesta instância (agendada ou manual)
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Scheduled(cron = "${cwm.snapshots.cron:0 15 0 * * *}")
+    public void scheduledRun() {
+        SnapshotBuildResult result = run();
+        if (result != null) {
+            log.info("Snapshots consolidados: {} carteiras, {} novos snapshots",
+                    result.walletsProcessed(), result.snapshotsCreated());
+        }
+    }
+
+    /**
+     * Consolidar os snapshots de todas as carteiras; null se já houver uma execução em andamento
+     */
+    public SnapshotBuildResult run() {
+        if (!running.tryLock()) {
+            return null;
+        }
+        try {
+            int wallets = 0;
+            int snapshots = 0;
+            Long after = 0L;
+            List<Long> walletIds;
+            while (!(walletIds = walletRepository.findIdsAfter(after, PageRequest.of(0, walletChunk))).isEmpty()) {
+                for (Long walletId : walletIds) {
+                    snapshots += balanceSnapshotService.buildWallet(walletId);
+                    wallets++;
+                }
+                after = walletIds.get(walletIds.size() - 1);
+            }
+            return new SnapshotBuildResult(wallets, snapshots);
+        } finally {
+            running.unlock();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.joaoac.cwm.service.snapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.joaoac.cwm.dto.BalanceAt;
+import com.joaoac.cwm.dto.BalancePoint;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.BalanceSnapshot;
+import com.joaoac.cwm.repository.AssetDelta;
+import com.joaoac.cwm.repository.BalanceSnapshotRepository;
+import com.joaoac.cwm.repository.DailyAssetDelta;
+import com.joaoac.cwm.repository.TransactionRepository;
+import com.joaoac.cwm.repository.WalletRepository;
+
+/**
+ * Snapshots diários de saldo por carteira e criptomoeda.
+ * <p>
+ * Invariante: se o último snapshot da carteira é do dia D, todos os dias até D
+ * estão consolidados para todas as criptomoedas (dias sem movimento não geram
+ * linha). Por isso uma escrita retroativa descarta os snapshots da carteira a
+ * partir do dia dela, e a consolidação recomeça do último dia restante.
+ * <p>
+ * Consolidação e invalidação travam a linha da carteira, então um snapshot
+ * nunca é gravado a partir de dados que uma escrita concorrente acabou de mudar.
+ */
+@Service
+public class BalanceSnapshotService {
+
+    // Limite do período de uma série, em dias
+    private static final int MAX_SERIES_DAYS = 3660;
+
+    // Início das consultas sem snapshot anterior
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Value("${cwm.snapshots.window-days:90}")
+    private int windowDays;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BalanceSnapshotService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Descartar os snapshots afetados por uma escrita com a data informada.
+     * Deve ser chamado dentro da transação da escrita.
+     */
+    public void invalidateFrom(Long walletId, LocalDateTime transactionDate) {
+        LocalDate day = transactionDate.toLocalDate();
+        // Snapshots só existem até ontem: escritas de hoje não afetam nenhum
+        if (!day.isBefore(LocalDate.now())) {
+            return;
+        }
+        walletRepository.findByIdForUpdate(walletId);
+        balanceSnapshotRepository.deleteFrom(walletId, day);
+    }
+
+    /**
+     * Consolidar os snapshots da carteira até ontem, em janelas de dias.
+     * Cada janela é uma transação; se interrompida, a próxima execução
+     * continua do último dia gravado.
+     */
+    public int buildWallet(Long walletId) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        int created = 0;
+        Integer written;
+        while ((written = transactionTemplate.execute(status -> buildNextWindow(walletId, yesterday))) != null) {
+            created += written;
+        }
+        return created;
+    }
+
+    // Grava a próxima janela a partir do estado no banco; null quando não há mais o que consolidar
+    private Integer buildNextWindow(Long walletId, LocalDate through) {
+        if (walletRepository.findByIdForUpdate(walletId).isEmpty()) {
+            return null;
+        }
+
+        LocalDate latest = balanceSnapshotRepository.findLatestDate(walletId).orElse(null);
+        LocalDateTime start = latest == null ? BEGINNING : latest.plusDays(1).atStartOfDay();
+
+        // Pula direto para o próximo dia com transações
+        LocalDateTime first = transactionRepository.findFirstTransactionDate(walletId, start).orElse(null);
+        if (first == null || first.toLocalDate().isAfter(through)) {
+            return null;
+        }
+        LocalDate from = first.toLocalDate();
+        LocalDate to = from.plusDays(windowDays - 1L);
+        if (to.isAfter(through)) {
+            to = through;
+        }
+
+        Map<String, BigDecimal> running = new TreeMap<>();
+        if (latest != null) {
+            for (BalanceSnapshot snapshot : balanceSnapshotRepository.findLatestPerAsset(walletId, latest)) {
+                running.put(snapshot.getCryptocurrency(), snapshot.getQuantity());
+            }
+        }
+
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        for (DailyAssetDelta delta : transactionRepository.sumDailyDeltas(walletId, from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(), TransactionType.SELL)) {
+            BigDecimal quantity = running.merge(delta.getCryptocurrency(), delta.getQuantity(), BigDecimal::add);
+            snapshots.add(new BalanceSnapshot(walletId, delta.getCryptocurrency(), delta.getDay(), quantity));
+        }
+        balanceSnapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * Saldo da carteira em um instante: snapshot mais próximo antes do dia, mais as transações seguintes
+     */
+    public BalanceAt balanceAt(Long walletId, LocalDateTime at) {
+        validateWalletExists(walletId);
+        return new BalanceAt(walletId, at, withoutEmpty(quantitiesAt(walletId, at)));
+    }
+
+    /**
+     * Saldo ao fim de cada dia de um período
+     */
+    public List<BalancePoint> balanceSeries(Long walletId, LocalDate startDate, LocalDate endDate) {
+        validateWalletExists(walletId);
+        if (endDate.isBefore(startDate) || ChronoUnit.DAYS.between(startDate, endDate) >= MAX_SERIES_DAYS) {
+            throw new IllegalArgumentException("Período deve ter entre 1 e " + MAX_SERIES_DAYS + " dias");
+        }
+
+        // Saldo no fim do dia anterior ao período
+        Map<String, BigDecimal> running = quantitiesAt(walletId, startDate.atStartOfDay().minusNanos(1));
+
+        // Variações de cada dia: dos snapshots enquanto existirem, depois das transações agregadas
+        Map<LocalDate, Map<String, BigDecimal>> changes = new TreeMap<>();
+        LocalDate consolidated = balanceSnapshotRepository.findLatestDate(walletId).orElse(startDate.minusDays(1));
+        if (!consolidated.isBefore(startDate)) {
+            LocalDate snapshotEnd = consolidated.isBefore(endDate) ? consolidated : endDate;
+            for (BalanceSnapshot snapshot : balanceSnapshotRepository
+                    .findByWalletIdAndSnapshotDateBetweenOrderBySnapshotDate(walletId, startDate, snapshotEnd)) {
+                changes.computeIfAbsent(snapshot.getSnapshotDate(), day -> new TreeMap<>())
+                        .put(snapshot.getCryptocurrency(), snapshot.getQuantity());
+            }
+        }
+        if (consolidated.isBefore(endDate)) {
+            LocalDate deltaStart = consolidated.isBefore(startDate) ? startDate : consolidated.plusDays(1);
+            for (DailyAssetDelta delta : transactionRepository.sumDailyDeltas(walletId, deltaStart.atStartOfDay(),
+                    endDate.plusDays(1).atStartOfDay(), TransactionType.SELL)) {
+                changes.computeIfAbsent(delta.getDay(), day -> new TreeMap<>())
+                        .merge(delta.getCryptocurrency(), delta.getQuantity(), BigDecimal::add);
+            }
+        }
+
+        List<BalancePoint> series = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            Map<String, BigDecimal> dayChanges = changes.get(day);
+            if (dayChanges != null) {
+                boolean fromSnapshots = !day.isAfter(consolidated);
+                dayChanges.forEach((crypto, quantity) -> {
+                    if (fromSnapshots) {
+                        running.put(crypto, quantity);
+                    } else {
+                        running.merge(crypto, quantity, BigDecimal::add);
+                    }
+                });
+            }
+            series.add(new BalancePoint(day, withoutEmpty(running)));
+        }
+        return series;
+    }
+
+    /**
+     * Remover os snapshots de uma carteira
+     */
+    public void deleteByWalletId(Long walletId) {
+        balanceSnapshotRepository.deleteByWalletId(walletId);
+    }
+
+    /**
+     * Remover até {@code limit} snapshots de uma carteira; retorna quantos foram removidos
+     */
+    public int deleteChunkByWalletId(Long walletId, int limit) {
+        return balanceSnapshotRepository.deleteChunkByWalletId(walletId, limit);
+    }
+
+    private void validateWalletExists(Long walletId) {
+        if (!walletRepository.existsById(walletId)) {
+            throw new RuntimeException("Carteira não encontrada com ID: " + walletId);
+        }
+    }
+
+    private Map<String, BigDecimal> quantitiesAt(Long walletId, LocalDateTime at) {
+        Map<String, BigDecimal> quantities = new TreeMap<>();
+        LocalDateTime deltaStart = BEGINNING;
+
+        LocalDate base = balanceSnapshotRepository.findLatestDateBefore(walletId, at.toLocalDate()).orElse(null);
+        if (base != null) {
+            for (BalanceSnapshot snapshot : balanceSnapshotRepository.findLatestPerAsset(walletId, base)) {
+                quantities.put(snapshot.getCryptocurrency(), snapshot.getQuantity());
+            }
+            deltaStart = base.plusDays(1).atStartOfDay();
+        }
+
+        for (AssetDelta delta : transactionRepository.sumDeltas(walletId, deltaStart, at, TransactionType.SELL)) {
+            quantities.merge(delta.getCryptocurrency(), delta.getQuantity(), BigDecimal::add);
+        }
+        return quantities;
+    }
+
+    // Mesmo critério do saldo atual: posições zeradas não aparecem
+    private static Map<String, BigDecimal> withoutEmpty(Map<String, BigDecimal> quantities) {
+        Map<String, BigDecimal> result = new TreeMap<>(quantities);
+        result.values().removeIf(quantity -> quantity.compareTo(BigDecimal.ZERO) <= 0);
+        return result;
+    }
+}
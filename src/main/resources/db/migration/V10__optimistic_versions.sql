@@ -0,0 +1,3 @@
+-- Optimistic lock counters (@Version) for wallets and transactions; constant default, no table rewrite
+ALTER TABLE wallets ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE transactions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
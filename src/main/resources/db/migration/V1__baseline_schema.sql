@@ -0,0 +1,22 @@
+-- Schema as originally created by Hibernate; IF NOT EXISTS lets existing databases baseline cleanly
+CREATE TABLE IF NOT EXISTS wallets (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    cryptocurrency   VARCHAR(255),
+    transaction_type SMALLINT CHECK (transaction_type BETWEEN 0 AND 1),
+    quantity         NUMERIC(38, 2),
+    price_per_unit   NUMERIC(38, 2),
+    total_value      NUMERIC(38, 2),
+    transaction_date TIMESTAMP(6),
+    notes            VARCHAR(255),
+    wallet_id        BIGINT REFERENCES wallets (id),
+    PRIMARY KEY (id)
+);
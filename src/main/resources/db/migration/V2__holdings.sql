@@ -0,0 +1,20 @@
+-- Per-wallet, per-asset position maintained by TransactionService
+CREATE TABLE holdings (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    wallet_id      BIGINT NOT NULL REFERENCES wallets (id),
+    cryptocurrency VARCHAR(255) NOT NULL,
+    quantity       NUMERIC(38, 2) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_holdings_wallet_crypto UNIQUE (wallet_id, cryptocurrency)
+);
+
+-- Backfill from the existing history (transaction_type: 0 = BUY, 1 = SELL)
+INSERT INTO holdings (wallet_id, cryptocurrency, quantity, updated_at)
+SELECT wallet_id,
+       cryptocurrency,
+       SUM(CASE WHEN transaction_type = 1 THEN -quantity ELSE quantity END),
+       NOW()
+FROM transactions
+WHERE wallet_id IS NOT NULL
+GROUP BY wallet_id, cryptocurrency;
@@ -0,0 +1,5 @@
+-- Pooled sequence used by Transaction ids so inserts can be batched
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+
+-- Start above every id already handed out by the identity column
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) FROM transactions) + 50);
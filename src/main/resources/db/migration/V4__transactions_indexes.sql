@@ -0,0 +1,15 @@
+-- Access paths of TransactionRepository; CONCURRENTLY avoids blocking writes while the indexes build
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_date
+    ON transactions (wallet_id, transaction_date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_crypto_date
+    ON transactions (wallet_id, cryptocurrency, transaction_date, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_type
+    ON transactions (wallet_id, transaction_type, total_value);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_crypto
+    ON transactions (cryptocurrency);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_date
+    ON transactions (transaction_date, id);
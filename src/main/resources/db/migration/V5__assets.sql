@@ -0,0 +1,59 @@
+-- Asset registry; transactions and holdings reference assets by a smallint id instead of the symbol
+CREATE TABLE assets (
+    id     SMALLINT GENERATED BY DEFAULT AS IDENTITY,
+    symbol VARCHAR(16) NOT NULL,
+    name   VARCHAR(100),
+    active BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_assets_symbol UNIQUE (symbol)
+);
+
+INSERT INTO assets (symbol, name, active) VALUES
+    ('BTC', 'Bitcoin', TRUE),
+    ('ETH', 'Ethereum', TRUE),
+    ('BNB', 'BNB', TRUE),
+    ('ADA', 'Cardano', TRUE),
+    ('XRP', 'XRP', TRUE),
+    ('SOL', 'Solana', TRUE),
+    ('DOT', 'Polkadot', TRUE),
+    ('DOGE', 'Dogecoin', TRUE),
+    ('AVAX', 'Avalanche', TRUE),
+    ('MATIC', 'Polygon', TRUE),
+    ('LTC', 'Litecoin', TRUE),
+    ('BCH', 'Bitcoin Cash', TRUE),
+    ('LINK', 'Chainlink', TRUE),
+    ('UNI', 'Uniswap', TRUE),
+    ('ATOM', 'Cosmos', TRUE),
+    ('XLM', 'Stellar', TRUE),
+    ('VET', 'VeChain', TRUE),
+    ('FIL', 'Filecoin', TRUE),
+    ('TRX', 'TRON', TRUE),
+    ('ETC', 'Ethereum Classic', TRUE);
+
+-- Symbols already stored but not in the list stay readable as inactive assets
+INSERT INTO assets (symbol, name, active)
+SELECT DISTINCT UPPER(cryptocurrency), UPPER(cryptocurrency), FALSE
+FROM (SELECT cryptocurrency FROM transactions UNION SELECT cryptocurrency FROM holdings) used
+WHERE cryptocurrency IS NOT NULL
+  AND UPPER(cryptocurrency) NOT IN (SELECT symbol FROM assets);
+
+-- transactions.cryptocurrency -> transactions.asset_id
+ALTER TABLE transactions ADD COLUMN asset_id SMALLINT;
+UPDATE transactions t SET asset_id = a.id FROM assets a WHERE a.symbol = UPPER(t.cryptocurrency);
+ALTER TABLE transactions ALTER COLUMN asset_id SET NOT NULL;
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_asset FOREIGN KEY (asset_id) REFERENCES assets (id);
+
+DROP INDEX IF EXISTS idx_transactions_wallet_crypto_date;
+DROP INDEX IF EXISTS idx_transactions_crypto;
+ALTER TABLE transactions DROP COLUMN cryptocurrency;
+CREATE INDEX idx_transactions_wallet_crypto_date ON transactions (wallet_id, asset_id, transaction_date, id);
+CREATE INDEX idx_transactions_asset ON transactions (asset_id);
+
+-- holdings.cryptocurrency -> holdings.asset_id
+ALTER TABLE holdings ADD COLUMN asset_id SMALLINT;
+UPDATE holdings h SET asset_id = a.id FROM assets a WHERE a.symbol = UPPER(h.cryptocurrency);
+ALTER TABLE holdings ALTER COLUMN asset_id SET NOT NULL;
+ALTER TABLE holdings ADD CONSTRAINT fk_holdings_asset FOREIGN KEY (asset_id) REFERENCES assets (id);
+ALTER TABLE holdings DROP CONSTRAINT uk_holdings_wallet_crypto;
+ALTER TABLE holdings DROP COLUMN cryptocurrency;
+ALTER TABLE holdings ADD CONSTRAINT uk_holdings_wallet_asset UNIQUE (wallet_id, asset_id);
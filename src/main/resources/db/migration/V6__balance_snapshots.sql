@@ -0,0 +1,14 @@
+-- End-of-day quantity per wallet and asset, written only for days with activity; built by BalanceSnapshotJob
+CREATE SEQUENCE balance_snapshots_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE balance_snapshots (
+    id            BIGINT NOT NULL,
+    wallet_id     BIGINT NOT NULL REFERENCES wallets (id),
+    asset_id      SMALLINT NOT NULL REFERENCES assets (id),
+    snapshot_date DATE NOT NULL,
+    quantity      NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balance_snapshots_wallet_asset_date UNIQUE (wallet_id, asset_id, snapshot_date)
+);
+
+CREATE INDEX idx_balance_snapshots_wallet_date ON balance_snapshots (wallet_id, snapshot_date);
@@ -0,0 +1,7 @@
+-- Last journal sequence persisted by each ingestion node; entries after it are replayed on startup
+CREATE TABLE ingest_checkpoints (
+    node          VARCHAR(64) NOT NULL,
+    last_sequence BIGINT NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (node)
+);
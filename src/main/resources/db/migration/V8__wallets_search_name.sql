@@ -0,0 +1,17 @@
+-- Lower-cased copy of the name, maintained by the Wallet entity, so name search can use an index
+ALTER TABLE wallets ADD COLUMN search_name VARCHAR(255);
+
+UPDATE wallets SET search_name = LOWER(TRIM(name)) WHERE name IS NOT NULL;
+
+-- Prefix search (LIKE 'x%'); varchar_pattern_ops keeps it index-backed under any collation
+CREATE INDEX idx_wallets_search_name ON wallets (search_name varchar_pattern_ops, id);
+
+-- Substring search (LIKE '%x%') through trigrams, when the pg_trgm extension can be installed
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    CREATE INDEX idx_wallets_search_name_trgm ON wallets USING gin (search_name gin_trgm_ops);
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'pg_trgm not available, substring wallet search will scan: %', SQLERRM;
+END
+$$;
@@ -0,0 +1,63 @@
+-- Append-only ledger of transaction events (0 = CREATED, 1 = AMENDED, 2 = VOIDED), numbered per wallet.
+-- wallets.ledger_sequence is the last number handed out; bumping it row-locks the wallet until commit.
+ALTER TABLE wallets ADD COLUMN ledger_sequence BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE ledger_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ledger_events (
+    id                        BIGINT NOT NULL,
+    wallet_id                 BIGINT NOT NULL REFERENCES wallets (id),
+    sequence_number           BIGINT NOT NULL,
+    event_type                SMALLINT NOT NULL CHECK (event_type BETWEEN 0 AND 2),
+    -- No foreign key: a VOIDED transaction is deleted, its events stay
+    transaction_id            BIGINT NOT NULL,
+    asset_id                  SMALLINT NOT NULL REFERENCES assets (id),
+    transaction_type          SMALLINT NOT NULL CHECK (transaction_type BETWEEN 0 AND 1),
+    quantity                  NUMERIC(38, 2) NOT NULL,
+    price_per_unit            NUMERIC(38, 2),
+    total_value               NUMERIC(38, 2),
+    transaction_date          TIMESTAMP(6),
+    previous_asset_id         SMALLINT REFERENCES assets (id),
+    previous_transaction_type SMALLINT CHECK (previous_transaction_type BETWEEN 0 AND 1),
+    previous_quantity         NUMERIC(38, 2),
+    recorded_at               TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ledger_events_wallet_sequence UNIQUE (wallet_id, sequence_number)
+);
+
+-- Replay state every N events per wallet; only the latest snapshot of a wallet is kept
+CREATE SEQUENCE ledger_snapshots_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ledger_snapshots (
+    id              BIGINT NOT NULL,
+    wallet_id       BIGINT NOT NULL REFERENCES wallets (id),
+    sequence_number BIGINT NOT NULL,
+    asset_id        SMALLINT NOT NULL REFERENCES assets (id),
+    quantity        NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ledger_snapshots_wallet_sequence_asset UNIQUE (wallet_id, sequence_number, asset_id)
+);
+
+-- Existing history becomes one CREATED event per transaction, in (transaction_date, id) order
+INSERT INTO ledger_events (id, wallet_id, sequence_number, event_type, transaction_id, asset_id,
+                           transaction_type, quantity, price_per_unit, total_value, transaction_date, recorded_at)
+SELECT nextval('ledger_events_seq'),
+       t.wallet_id,
+       ROW_NUMBER() OVER (PARTITION BY t.wallet_id ORDER BY t.transaction_date, t.id),
+       0,
+       t.id,
+       t.asset_id,
+       t.transaction_type,
+       COALESCE(t.quantity, 0),
+       t.price_per_unit,
+       t.total_value,
+       t.transaction_date,
+       CURRENT_TIMESTAMP
+FROM transactions t
+WHERE t.wallet_id IS NOT NULL
+  AND t.transaction_type IS NOT NULL;
+
+UPDATE wallets w
+SET ledger_sequence = c.events
+FROM (SELECT wallet_id, COUNT(*) AS events FROM ledger_events GROUP BY wallet_id) c
+WHERE c.wallet_id = w.id;
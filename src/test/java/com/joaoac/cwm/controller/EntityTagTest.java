@@ -0,0 +1,35 @@
+package com.joaoac.cwm.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * If-Match pela comparação forte: listas coincidem se algum membro coincide;
+ * tags fracas e tags que não são uma versão nunca coincidem (412, não 400).
+ */
+class EntityTagTest {
+
+    @Test
+    void absentOrWildcardAcceptsAnyVersion() {
+        assertNull(EntityTag.parseIfMatch(null));
+        assertNull(EntityTag.parseIfMatch(" "));
+        assertNull(EntityTag.parseIfMatch("*"));
+    }
+
+    @Test
+    void listAcceptsEveryStrongVersion() {
+        assertEquals(Set.of(3L), EntityTag.parseIfMatch("\"3\""));
+        assertEquals(Set.of(3L, 4L), EntityTag.parseIfMatch("\"3\", \"4\""));
+    }
+
+    @Test
+    void weakAndForeignTagsNeverMatch() {
+        assertEquals(Set.of(), EntityTag.parseIfMatch("W/\"3\""));
+        assertEquals(Set.of(), EntityTag.parseIfMatch("\"abc\""));
+        assertEquals(Set.of(5L), EntityTag.parseIfMatch("W/\"3\", \"abc\", \"5\""));
+    }
+}
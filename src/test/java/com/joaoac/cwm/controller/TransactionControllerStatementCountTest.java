@@ -0,0 +1,202 @@
+package com.joaoac.cwm.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletCache;
+import com.joaoac.cwm.service.WalletService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Número de comandos SQL e de entidades carregadas por endpoint, medido pelas
+ * estatísticas do Hibernate. A carteira tem transações suficientes para que um
+ * N+1 ou a volta do join com a carteira ultrapasse o limite de cada endpoint.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cwm-statement-count-test",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionControllerStatementCountTest {
+
+    private static final List<String> CRYPTOCURRENCIES = List.of("BTC", "ETH", "SOL");
+    private static final int TRANSACTIONS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long walletId;
+    private Long transactionId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Wallet wallet = new Wallet();
+        wallet.setName("contagem-sql");
+        walletId = walletService.save(wallet).getId();
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setCryptocurrency(CRYPTOCURRENCIES.get(i % CRYPTOCURRENCIES.size()));
+            transaction.setTransactionType(TransactionType.BUY);
+            transaction.setQuantity(BigDecimal.ONE);
+            transaction.setPricePerUnit(BigDecimal.TEN);
+            transactionId = transactionService.save(walletId, transaction).getId();
+        }
+    }
+
+    @BeforeEach
+    void resetCache() {
+        // Sem cache: mede o caminho que vai ao banco
+        walletCache.invalidate(walletId);
+    }
+
+    @Test
+    void transactionById() throws Exception {
+        // Só a transação: a carteira é LAZY e não entra na resposta
+        assertQueries(get("/api/transactions/{id}", transactionId), 1, 1);
+    }
+
+    @Test
+    void walletTransactionsPage() throws Exception {
+        assertQueries(get("/api/wallets/{walletId}/transactions", walletId), 1, 0);
+        assertQueries(get("/api/wallets/{walletId}/transactions", walletId).param("size", "10"), 1, 0);
+    }
+
+    @Test
+    void allTransactionsPage() throws Exception {
+        assertQueries(get("/api/transactions"), 1, 0);
+    }
+
+    @Test
+    void transactionsByCryptocurrency() throws Exception {
+        assertQueries(get("/api/wallets/{walletId}/transactions/cryptocurrency/{crypto}", walletId, "eth"), 1, 0);
+    }
+
+    @Test
+    void transactionsByUnknownCryptocurrency() throws Exception {
+        // Símbolo fora do registro: página vazia sem ir ao banco
+        assertQueries(get("/api/wallets/{walletId}/transactions/cryptocurrency/{crypto}", walletId, "xyz"), 0, 0);
+        mockMvc.perform(get("/api/wallets/{walletId}/transactions/cryptocurrency/{crypto}", walletId, "xyz"))
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @Test
+    void transactionsByPeriod() throws Exception {
+        assertQueries(get("/api/wallets/{walletId}/transactions/period", walletId)
+                .param("startDate", "2000-01-01T00:00:00")
+                .param("endDate", "2100-01-01T00:00:00"), 1, 0);
+    }
+
+    @Test
+    void latestTransaction() throws Exception {
+        assertQueries(get("/api/wallets/{walletId}/transactions/latest", walletId), 1, 0);
+    }
+
+    @Test
+    void transactionStats() throws Exception {
+        // Sequência do ledger e a agregação por tipo
+        assertQueries(get("/api/wallets/{walletId}/transaction-stats", walletId), 2, 0);
+    }
+
+    @Test
+    void balanceCheck() throws Exception {
+        assertQueries(get("/api/wallets/{walletId}/balance-check", walletId)
+                .param("cryptocurrency", "BTC")
+                .param("quantity", "1"), 3, CRYPTOCURRENCIES.size());
+    }
+
+    @Test
+    void walletBalance() throws Exception {
+        // Sequência do ledger, existência da carteira e uma posição por criptomoeda em uma única consulta
+        assertQueries(get("/wallets/{id}/balance", walletId), 3, CRYPTOCURRENCIES.size());
+    }
+
+    @Test
+    void cachedWalletBalance() throws Exception {
+        mockMvc.perform(get("/wallets/{id}/balance", walletId));
+        // Em cache: só a conferência da sequência do ledger
+        assertQueries(get("/wallets/{id}/balance", walletId), 1, 0);
+        assertQueries(get("/api/wallets/{walletId}/transaction-stats", walletId), 2, 0);
+        assertQueries(get("/api/wallets/{walletId}/transaction-stats", walletId), 1, 0);
+    }
+
+    @Test
+    void export() throws Exception {
+        statistics.clear();
+        MvcResult started = mockMvc.perform(get("/api/wallets/{walletId}/transactions/export", walletId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertCounts("/api/wallets/" + walletId + "/transactions/export", 2, 0);
+    }
+
+    @Test
+    void createTransaction() throws Exception {
+        String body = "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"BUY\",\"quantity\":1,\"pricePerUnit\":10}";
+        assertQueries(post("/api/wallets/{walletId}/transactions", walletId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body), 6, 1);
+    }
+
+    private void assertQueries(MockHttpServletRequestBuilder request, long maxStatements, long maxEntityLoads)
+            throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        assertCounts(request.buildRequest(new MockServletContext()).getRequestURI(), maxStatements, maxEntityLoads);
+    }
+
+    private void assertCounts(String endpoint, long maxStatements, long maxEntityLoads) {
+        long statements = statistics.getPrepareStatementCount();
+        long entityLoads = statistics.getEntityLoadCount();
+        assertTrue(statements <= maxStatements,
+                endpoint + ": " + statements + " comandos SQL, limite " + maxStatements);
+        assertTrue(entityLoads <= maxEntityLoads,
+                endpoint + ": " + entityLoads + " entidades carregadas, limite " + maxEntityLoads);
+    }
+}
@@ -0,0 +1,83 @@
+package com.joaoac.cwm.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletService;
+
+/**
+ * Uma transação inválida responde 400 com todas as violações (código e campo)
+ * na criação e na alteração.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class TransactionControllerValidationTest {
+
+    private static final String INVALID = "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"BUY\"," +
+            "\"quantity\":0,\"pricePerUnit\":-1}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Long walletId;
+
+    @BeforeEach
+    void createWallet() {
+        Wallet wallet = new Wallet();
+        wallet.setName("validacao-" + System.nanoTime());
+        walletId = walletService.save(wallet).getId();
+    }
+
+    @Test
+    void createReturnsEveryViolation() throws Exception {
+        mockMvc.perform(post("/api/wallets/{walletId}/transactions", walletId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].code").value("INVALID_QUANTITY"))
+                .andExpect(jsonPath("$.errors[0].field").value("quantity"))
+                .andExpect(jsonPath("$.errors[1].code").value("INVALID_PRICE"))
+                .andExpect(jsonPath("$.errors[1].field").value("pricePerUnit"));
+    }
+
+    @Test
+    void updateReturnsViolationsInsteadOfNotFound() throws Exception {
+        Transaction buy = new Transaction();
+        buy.setCryptocurrency("BTC");
+        buy.setTransactionType(TransactionType.BUY);
+        buy.setQuantity(BigDecimal.ONE);
+        buy.setPricePerUnit(BigDecimal.TEN);
+        Long transactionId = transactionService.save(walletId, buy).getId();
+
+        mockMvc.perform(put("/api/transactions/{id}", transactionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(INVALID))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].code").value("INVALID_QUANTITY"));
+    }
+}
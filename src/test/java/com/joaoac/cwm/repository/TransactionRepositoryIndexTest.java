@@ -0,0 +1,227 @@
+package com.joaoac.cwm.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.joaoac.cwm.dto.TransactionCursor;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.BalanceSnapshot;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Executa cada consulta do TransactionRepository sobre dados semeados, captura
+ * o SQL gerado pelo Hibernate e falha se o EXPLAIN do H2 mostrar varredura
+ * completa da tabela transactions. Confere também que os índices declarados
+ * nas entidades existem nas migrações do Flyway usadas em produção.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cwm-index-test",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.joaoac.cwm.repository.TransactionRepositoryIndexTest$CapturingInspector"
+})
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionRepositoryIndexTest {
+
+    private static final int WALLETS = 20;
+    private static final int TRANSACTIONS_PER_WALLET = 150;
+    private static final List<String> CRYPTOCURRENCIES = List.of("BTC", "ETH", "SOL", "ADA", "DOT");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final List<String> captured = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long walletId;
+
+    @BeforeAll
+    void seed() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int w = 0; w < WALLETS; w++) {
+            Wallet wallet = new Wallet();
+            wallet.setName("indices-" + w);
+            wallet = walletRepository.save(wallet);
+            for (int i = 0; i < TRANSACTIONS_PER_WALLET; i++) {
+                Transaction transaction = new Transaction();
+                transaction.setWallet(wallet);
+                transaction.setWalletId(wallet.getId());
+                transaction.setCryptocurrency(CRYPTOCURRENCIES.get(i % CRYPTOCURRENCIES.size()));
+                transaction.setTransactionType(i % 3 == 2 ? TransactionType.SELL : TransactionType.BUY);
+                transaction.setQuantity(BigDecimal.ONE);
+                transaction.setPricePerUnit(BigDecimal.TEN);
+                transaction.setTotalValue(BigDecimal.TEN);
+                transaction.setTransactionDate(START.plusHours((long) i * WALLETS + w));
+                transactions.add(transaction);
+            }
+            walletId = wallet.getId();
+        }
+        transactionRepository.saveAll(transactions);
+        // Estatísticas atualizadas para o otimizador do H2
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        LocalDateTime from = START.plusDays(2);
+        LocalDateTime to = START.plusDays(20);
+        TransactionCursor cursor = new TransactionCursor(START.plusDays(5), 1L);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findByWalletId", () -> transactionRepository.findByWalletId(walletId));
+        queries.put("findByWalletIdAndCryptocurrency",
+                () -> transactionRepository.findByWalletIdAndCryptocurrency(walletId, "ETH"));
+        queries.put("findByWalletIdAndTransactionType",
+                () -> transactionRepository.findByWalletIdAndTransactionType(walletId, TransactionType.SELL));
+        queries.put("findByWalletIdAndTransactionDateBetween",
+                () -> transactionRepository.findByWalletIdAndTransactionDateBetween(walletId, from, to));
+        queries.put("findByCryptocurrency", () -> transactionRepository.findByCryptocurrency("ETH"));
+        queries.put("findByWalletIdOrderByTransactionDateDesc",
+                () -> transactionRepository.findByWalletIdOrderByTransactionDateDesc(walletId));
+        queries.put("findFirstByWalletIdOrderByTransactionDateDescIdDesc",
+                () -> transactionRepository.findFirstByWalletIdOrderByTransactionDateDescIdDesc(walletId));
+        queries.put("findByWalletIdAndCryptocurrencyAndTransactionType",
+                () -> transactionRepository.findByWalletIdAndCryptocurrencyAndTransactionType(
+                        walletId, "ETH", TransactionType.BUY));
+        queries.put("sumByTransactionType", () -> transactionRepository.sumByTransactionType(walletId));
+        queries.put("sumTotalValue", () -> transactionRepository.sumTotalValue(walletId, TransactionType.BUY));
+        queries.put("sumDailyDeltas",
+                () -> transactionRepository.sumDailyDeltas(walletId, from, to, TransactionType.SELL));
+        queries.put("sumDeltas", () -> transactionRepository.sumDeltas(walletId, from, to, TransactionType.SELL));
+        queries.put("sumQuantities", () -> transactionRepository.sumQuantities(walletId, TransactionType.SELL));
+        queries.put("findFirstTransactionDate", () -> transactionRepository.findFirstTransactionDate(walletId, from));
+        queries.put("countByWalletId", () -> transactionRepository.countByWalletId(walletId));
+        queries.put("existsByWalletId", () -> transactionRepository.existsByWalletId(walletId));
+        queries.put("findSlice(wallet)", () -> transactionRepository.findSlice(
+                TransactionFilter.byWallet(walletId), cursor, Sort.Direction.DESC, 50));
+        queries.put("findSlice(wallet, crypto, period)", () -> transactionRepository.findSlice(
+                new TransactionFilter(walletId, "ETH", from, to), cursor, Sort.Direction.ASC, 50));
+        queries.put("findSlice(crypto)", () -> transactionRepository.findSlice(
+                new TransactionFilter(null, "ETH", null, null), null, Sort.Direction.ASC, 50));
+        queries.put("findSlice(period)", () -> transactionRepository.findSlice(
+                new TransactionFilter(null, null, from, to), cursor, Sort.Direction.ASC, 50));
+        queries.put("findSlice(all)", () -> transactionRepository.findSlice(
+                TransactionFilter.all(), cursor, Sort.Direction.DESC, 50));
+        queries.put("streamAll(wallet)", () -> {
+            try (Stream<?> rows = transactionRepository.streamAll(TransactionFilter.byWallet(walletId), 100)) {
+                rows.count();
+            }
+        });
+        // Carteira inexistente: só o plano interessa, nada é removido
+        queries.put("deleteByWalletId", () -> transactionRepository.deleteByWalletId(-1L));
+        queries.put("deleteChunkByWalletId", () -> transactionRepository.deleteChunkByWalletId(-1L, 100));
+        // findByTransactionType fica de fora: dois valores possíveis, metade da tabela; a varredura é o plano certo
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> failures = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            captured.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+            List<String> statements = captured.stream()
+                    .filter(TransactionRepositoryIndexTest::readsTransactions)
+                    .toList();
+            if (statements.isEmpty()) {
+                failures.add(name + ": nenhuma consulta capturada");
+            }
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains("TRANSACTIONS.tableScan")) {
+                    failures.add(name + ": varredura completa\n" + plan);
+                }
+            }
+        });
+
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    @Test
+    void entityIndexesExistInMigrations() {
+        String migrations = readMigrations();
+        for (Class<?> entity : List.of(Transaction.class, Wallet.class, BalanceSnapshot.class)) {
+            for (Index index : entity.getAnnotation(Table.class).indexes()) {
+                assertTrue(migrations.contains("INDEX " + index.name() + " ")
+                                || migrations.contains("EXISTS " + index.name() + "\n"),
+                        entity.getSimpleName() + ": índice " + index.name() + " não existe nas migrações");
+            }
+        }
+        assertFalse(migrations.isEmpty());
+    }
+
+    private String explain(String sql) {
+        // Os parâmetros ficam sem valor: o EXPLAIN do H2 só compila a consulta
+        return jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : "");
+    }
+
+    private static boolean readsTransactions(String sql) {
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return normalized.contains(" transactions ")
+                && (normalized.startsWith("select") || normalized.startsWith("delete"));
+    }
+
+    private static String readMigrations() {
+        try {
+            StringBuilder content = new StringBuilder();
+            for (Resource resource : new PathMatchingResourcePatternResolver()
+                    .getResources("classpath:db/migration/*.sql")) {
+                content.append(resource.getContentAsString(StandardCharsets.UTF_8)).append('\n');
+            }
+            return content.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Registrado pelo Hibernate via hibernate.session_factory.statement_inspector
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            captured.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.joaoac.cwm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.TransactionRepository;
+
+/**
+ * Vendas concorrentes sobre poucas posições: nenhuma posição fica negativa e
+ * cada posição termina igual à soma do histórico gravado. A vazão é impressa
+ * para 1, 8 e 64 escritores.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class TransactionServiceConcurrencyTest {
+
+    private static final List<String> CRYPTOCURRENCIES = List.of("BTC", "ETH", "SOL", "ADA");
+    private static final int INITIAL_UNITS = 20;
+    private static final int OPERATIONS = 320;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private HoldingService holdingService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @ParameterizedTest(name = "{0} escritores")
+    @ValueSource(ints = { 1, 8, 64 })
+    void concurrentSellsNeverOverdrawPosition(int writers) throws Exception {
+        Wallet wallet = new Wallet();
+        wallet.setName("concorrencia-" + writers);
+        Long walletId = walletService.save(wallet).getId();
+        for (String crypto : CRYPTOCURRENCIES) {
+            transactionService.save(walletId, transaction(crypto, TransactionType.BUY, INITIAL_UNITS));
+        }
+
+        // Três vendas para cada compra: a demanda de venda supera o saldo e parte delas é recusada
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger sells = new AtomicInteger();
+        AtomicInteger buys = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int op;
+                while ((op = next.getAndIncrement()) < OPERATIONS) {
+                    String crypto = CRYPTOCURRENCIES.get(op % CRYPTOCURRENCIES.size());
+                    TransactionType type = (op / CRYPTOCURRENCIES.size()) % 4 == 3
+                            ? TransactionType.BUY : TransactionType.SELL;
+                    try {
+                        transactionService.save(walletId, transaction(crypto, type, 1));
+                        (type == TransactionType.BUY ? buys : sells).incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertEquals(TransactionType.SELL, type, "compra recusada: " + e.getMessage());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+
+        System.out.printf("%2d escritores: %d operacoes em %.2fs (%.0f ops/s), %d vendas recusadas%n",
+                writers, OPERATIONS, seconds, OPERATIONS / seconds, rejected.get());
+
+        assertEquals(OPERATIONS, sells.get() + buys.get() + rejected.get());
+        assertTrue(rejected.get() > 0, "a carga deve esgotar ao menos uma posição");
+
+        Map<String, BigDecimal> quantities = holdingService.getQuantities(walletId);
+        Map<String, BigDecimal> history = new HashMap<>();
+        transactionRepository.sumQuantities(walletId, TransactionType.SELL)
+                .forEach(delta -> history.put(delta.getCryptocurrency(), delta.getQuantity()));
+
+        for (String crypto : CRYPTOCURRENCIES) {
+            BigDecimal quantity = quantities.get(crypto);
+            assertTrue(quantity.signum() >= 0, crypto + " negativo: " + quantity);
+            assertEquals(0, history.get(crypto).compareTo(quantity), crypto + " diverge do histórico");
+        }
+        BigDecimal total = quantities.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, total.compareTo(BigDecimal.valueOf(
+                (long) INITIAL_UNITS * CRYPTOCURRENCIES.size() + buys.get() - sells.get())));
+    }
+
+    private static Transaction transaction(String crypto, TransactionType type, int quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setCryptocurrency(crypto);
+        transaction.setTransactionType(type);
+        transaction.setQuantity(BigDecimal.valueOf(quantity));
+        transaction.setPricePerUnit(BigDecimal.TEN);
+        return transaction;
+    }
+}
@@ -0,0 +1,68 @@
+package com.joaoac.cwm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A validação e a conferência de saldo chamadas dentro de save não passam pelo
+ * proxy, mas aparecem em cwm.service como operation=validate e operation=balanceCheck.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class TransactionServiceMetricsTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void saveTimesValidationAndBalanceCheck() {
+        Wallet wallet = new Wallet();
+        wallet.setName("metricas-" + System.nanoTime());
+        Long walletId = walletService.save(wallet).getId();
+
+        long validations = count("validate");
+        long balanceChecks = count("balanceCheck");
+
+        transactionService.save(walletId, transaction(TransactionType.BUY, "2"));
+        transactionService.save(walletId, transaction(TransactionType.SELL, "1"));
+
+        assertEquals(validations + 2, count("validate"));
+        // Só a venda confere o saldo
+        assertEquals(balanceChecks + 1, count("balanceCheck"));
+    }
+
+    private long count(String operation) {
+        Timer timer = meterRegistry.find("cwm.service")
+                .tags("class", "TransactionService", "operation", operation, "outcome", "success")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static Transaction transaction(TransactionType type, String quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setCryptocurrency("BTC");
+        transaction.setTransactionType(type);
+        transaction.setQuantity(new BigDecimal(quantity));
+        transaction.setPricePerUnit(BigDecimal.TEN);
+        return transaction;
+    }
+}
@@ -0,0 +1,86 @@
+package com.joaoac.cwm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.joaoac.cwm.dto.CacheStatsResponse;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.WalletRepository;
+
+/**
+ * Uma escrita feita por outra instância só avança wallets.ledger_sequence, sem
+ * chamar {@link WalletCache#invalidate(Long)} aqui; a leitura seguinte recarrega.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:cwm-wallet-cache-test"
+})
+@ActiveProfiles("dev")
+class WalletCacheTest {
+
+    @Autowired
+    private WalletCache walletCache;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reloadsAfterWriteOnAnotherInstance() {
+        Long walletId = createWallet();
+
+        Map<String, BigDecimal> before = Map.of("BTC", BigDecimal.ONE);
+        Map<String, BigDecimal> after = Map.of("BTC", BigDecimal.TEN);
+
+        assertEquals(before, walletCache.getBalance(walletId, () -> before));
+        assertEquals(before, walletCache.getBalance(walletId, () -> after));
+
+        transactionTemplate.executeWithoutResult(status -> walletRepository.advanceLedgerSequence(walletId, 1));
+
+        assertEquals(after, walletCache.getBalance(walletId, () -> after));
+    }
+
+    @Test
+    void staleReadCountsAsMiss() {
+        Long walletId = createWallet();
+        Map<String, BigDecimal> balance = Map.of("ETH", BigDecimal.ONE);
+        CacheStatsResponse before = balanceStats();
+
+        walletCache.getBalance(walletId, () -> balance);
+        walletCache.getBalance(walletId, () -> balance);
+        transactionTemplate.executeWithoutResult(status -> walletRepository.advanceLedgerSequence(walletId, 1));
+        walletCache.getBalance(walletId, () -> balance);
+        walletCache.getBalance(walletId, () -> balance);
+
+        // Falta, acerto, falta (desatualizado), acerto
+        CacheStatsResponse after = balanceStats();
+        assertEquals(2, after.hitCount() - before.hitCount());
+        assertEquals(2, after.missCount() - before.missCount());
+    }
+
+    private Long createWallet() {
+        Wallet wallet = new Wallet();
+        wallet.setName("cache-" + System.nanoTime());
+        return walletService.save(wallet).getId();
+    }
+
+    private CacheStatsResponse balanceStats() {
+        return walletCache.getCacheStats().stream()
+                .filter(stats -> stats.name().equals("wallet-balances"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
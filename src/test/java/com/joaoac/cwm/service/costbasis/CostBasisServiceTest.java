@@ -0,0 +1,130 @@
+package com.joaoac.cwm.service.costbasis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.joaoac.cwm.dto.AssetCostBasis;
+import com.joaoac.cwm.dto.CostBasisReport;
+import com.joaoac.cwm.enums.CostBasisMethod;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.service.TransactionService;
+import com.joaoac.cwm.service.WalletService;
+import com.joaoac.cwm.service.price.PriceCache;
+
+/**
+ * O relatório mantido em memória (eventos novos aplicados sobre o estado
+ * anterior) coincide com o replay completo do histórico depois de compras,
+ * vendas, compras retroativas, alterações e remoções; o P&L não realizado
+ * usa a cotação vigente sobre o custo em aberto.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("dev")
+class CostBasisServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    private CostBasisService costBasisService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private PriceCache priceCache;
+
+    private Long walletId;
+
+    @BeforeEach
+    void createWallet() {
+        Wallet wallet = new Wallet();
+        wallet.setName("custo-" + System.nanoTime());
+        walletId = walletService.save(wallet).getId();
+    }
+
+    @ParameterizedTest
+    @EnumSource(CostBasisMethod.class)
+    void cachedReportMatchesReplay(CostBasisMethod method) {
+        save(TransactionType.BUY, "2", "100", 0);
+        save(TransactionType.BUY, "1", "130", 1);
+        assertMatchesReplay(method);
+
+        // Novos eventos em ordem: aplicados sobre o estado em memória
+        save(TransactionType.SELL, "1.5", "150", 2);
+        Transaction late = save(TransactionType.BUY, "3", "90", 3);
+        assertMatchesReplay(method);
+
+        // Compra retroativa: anterior à última aplicada, exige replay
+        save(TransactionType.BUY, "1", "50", -1);
+        assertMatchesReplay(method);
+
+        // Alteração e remoção
+        Transaction amended = copy(late);
+        amended.setQuantity(new BigDecimal("2"));
+        amended.setTotalValue(null);
+        transactionService.update(late.getId(), amended);
+        assertMatchesReplay(method);
+
+        Transaction sell = save(TransactionType.SELL, "1", "160", 4);
+        assertMatchesReplay(method);
+        transactionService.deleteById(sell.getId());
+        assertMatchesReplay(method);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CostBasisMethod.class)
+    void unrealizedPnlUsesCurrentPrice(CostBasisMethod method) {
+        save(TransactionType.BUY, "2", "100", 0);
+        save(TransactionType.SELL, "1", "150", 1);
+
+        CostBasisReport report = costBasisService.report(walletId, method);
+        AssetCostBasis btc = report.positions().get(0);
+        BigDecimal price = priceCache.getSnapshot().priceOf("BTC");
+
+        // Resta 1 BTC com custo 100 em qualquer método
+        assertEquals(price, btc.price());
+        assertEquals(CostBasisLedger.scale(price.subtract(new BigDecimal("100"))), btc.unrealizedPnl());
+        assertEquals(btc.unrealizedPnl(), report.unrealizedPnl());
+    }
+
+    private void assertMatchesReplay(CostBasisMethod method) {
+        CostBasisReport report = costBasisService.report(walletId, method);
+        CostBasisLedger replayed = costBasisService.buildLedger(walletId, method);
+        assertEquals(replayed.getRealizedPnl(), report.realizedPnl());
+        assertEquals(replayed.getPositions(priceCache.getSnapshot()), report.positions());
+    }
+
+    private Transaction save(TransactionType type, String quantity, String price, int day) {
+        Transaction transaction = new Transaction();
+        transaction.setCryptocurrency("BTC");
+        transaction.setTransactionType(type);
+        transaction.setQuantity(new BigDecimal(quantity));
+        transaction.setPricePerUnit(new BigDecimal(price));
+        transaction.setTransactionDate(START.plusDays(day));
+        return transactionService.save(walletId, transaction);
+    }
+
+    private static Transaction copy(Transaction source) {
+        Transaction copy = new Transaction();
+        copy.setCryptocurrency(source.getCryptocurrency());
+        copy.setTransactionType(source.getTransactionType());
+        copy.setQuantity(source.getQuantity());
+        copy.setPricePerUnit(source.getPricePerUnit());
+        copy.setTransactionDate(source.getTransactionDate());
+        copy.setNotes(source.getNotes());
+        return copy;
+    }
+}
@@ -0,0 +1,129 @@
+package com.joaoac.cwm.service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Journal da ingestão: uma linha cortada por uma queda (CRC divergente) é
+ * descartada na recuperação, e um segmento só é apagado quando todas as suas
+ * entradas estão confirmadas no banco.
+ */
+class IngestionJournalTest {
+
+    private static final LocalDateTime ACCEPTED_AT = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryDiscardsTornLastLine() throws IOException {
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            journal.recover(0);
+            journal.append(List.of(entry(1), entry(2), entry(3)));
+        }
+
+        // Queda no meio da última escrita: a linha fica sem o final
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(List.of(1L, 2L), ids(journal.recover(0)));
+        }
+    }
+
+    @Test
+    void recoveryDiscardsLineWithChecksumMismatch() throws IOException {
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            journal.recover(0);
+            journal.append(List.of(entry(1), entry(2)));
+        }
+
+        Path segment = segments().get(0);
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        Files.writeString(segment, content.replace("\"quantity\":2", "\"quantity\":9"), StandardCharsets.UTF_8);
+
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(List.of(1L), ids(journal.recover(0)));
+        }
+    }
+
+    @Test
+    void recoveryReturnsOnlyEntriesAfterCheckpoint() throws IOException {
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            journal.recover(0);
+            journal.append(List.of(entry(1), entry(2), entry(3)));
+        }
+
+        // Reinício entre o commit no banco (checkpoint 2) e a liberação do segmento
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(List.of(3L), ids(journal.recover(2)));
+        }
+        // Tudo confirmado: o segmento é apagado na recuperação
+        try (IngestionJournal journal = journal(Long.MAX_VALUE)) {
+            assertEquals(List.of(), ids(journal.recover(3)));
+        }
+        assertEquals(0, segments().size());
+    }
+
+    @Test
+    void segmentIsDeletedOnlyAfterItsEntriesAreCommitted() throws IOException {
+        // Um byte: cada escrita fecha o segmento anterior
+        try (IngestionJournal journal = journal(1)) {
+            journal.recover(0);
+            journal.append(List.of(entry(1), entry(2)));
+            journal.append(List.of(entry(3)));
+            journal.append(List.of(entry(4)));
+            assertEquals(3, segments().size());
+
+            journal.release(0);
+            journal.release(1);
+            assertEquals(3, segments().size());
+
+            journal.release(2);
+            assertEquals(2, segments().size());
+
+            // O segmento aberto continua até a próxima recuperação
+            journal.release(4);
+            assertEquals(1, segments().size());
+        }
+    }
+
+    private IngestionJournal journal(long segmentBytes) {
+        return new IngestionJournal(directory, segmentBytes, false, objectMapper);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static IngestEntry entry(long id) {
+        return new IngestEntry(id, 1L, "BTC", BigDecimal.valueOf(id), new BigDecimal("100"),
+                BigDecimal.valueOf(id * 100), ACCEPTED_AT, null, ACCEPTED_AT);
+    }
+
+    private static List<Long> ids(List<IngestEntry> entries) {
+        return entries.stream().map(IngestEntry::id).toList();
+    }
+}
@@ -0,0 +1,207 @@
+package com.joaoac.cwm.service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joaoac.cwm.dto.IngestionStatus;
+import com.joaoac.cwm.enums.TransactionType;
+import com.joaoac.cwm.model.Transaction;
+import com.joaoac.cwm.model.Wallet;
+import com.joaoac.cwm.repository.TransactionRepository;
+import com.joaoac.cwm.service.HoldingLockManager;
+import com.joaoac.cwm.service.WalletService;
+
+/**
+ * Ingestão assíncrona de ponta a ponta sobre H2 e um journal em diretório
+ * temporário: reinício entre o commit no banco e a liberação do journal sem
+ * linhas duplicadas, 429 com as vagas da fila esgotadas e segmentos apagados
+ * só depois do commit das suas entradas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cwm-ingestion-test",
+        "spring.jpa.show-sql=false",
+        "cwm.ingest.enabled=true",
+        "cwm.ingest.queue-capacity=3",
+        "cwm.ingest.fsync=false",
+        // Um byte: cada escrita do journal fecha o segmento anterior
+        "cwm.ingest.segment-size=1B"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class IngestionServiceTest {
+
+    private static final Path JOURNAL_DIR;
+
+    static {
+        try {
+            JOURNAL_DIR = Files.createTempDirectory("cwm-ingest-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("cwm.ingest.journal-dir", JOURNAL_DIR::toString);
+    }
+
+    @Autowired
+    private IngestionService ingestionService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HoldingLockManager holdingLockManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long walletId;
+
+    @BeforeEach
+    void createWallet() {
+        Wallet wallet = new Wallet();
+        wallet.setName("ingestao-" + System.nanoTime());
+        walletId = walletService.save(wallet).getId();
+    }
+
+    @AfterEach
+    void drain() throws InterruptedException {
+        awaitCommitted();
+    }
+
+    @Test
+    void restartAfterCommitReplaysOnlyUncommittedEntries() throws Exception {
+        ingestionService.submit(walletId, buy("1"));
+        ingestionService.submit(walletId, buy("2"));
+        long committed = awaitCommitted().lastCommittedId();
+        ingestionService.stop();
+
+        // Parada entre o commit e a liberação: as entradas confirmadas continuam no journal
+        assertFalse(segments().isEmpty());
+
+        // Uma entrada aceita e ainda não gravada no banco
+        try (IngestionJournal journal = new IngestionJournal(JOURNAL_DIR, 1, false, objectMapper)) {
+            journal.append(List.of(IngestEntry.of(walletId, buy("3"), LocalDateTime.now()).withId(committed + 1)));
+        }
+
+        ingestionService.start();
+        awaitCommitted();
+        assertEquals(3, transactionRepository.countByWalletId(walletId));
+
+        // Um segundo reinício não regrava nada
+        ingestionService.stop();
+        ingestionService.start();
+        awaitCommitted();
+        assertEquals(3, transactionRepository.countByWalletId(walletId));
+    }
+
+    @Test
+    void rejectsWith429WhenQueueIsFullAndReleasesSegmentsAfterCommit() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Segura a posição: o lote da ingestão espera o lock e as vagas não voltam
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                holdingLockManager.executeLocked(walletId, Set.of("BTC"), () -> {
+                    locked.countDown();
+                    await(release);
+                    return null;
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        int segmentsBefore = segments().size();
+        String body = "{\"cryptocurrency\":\"BTC\",\"transactionType\":\"BUY\",\"quantity\":1,\"pricePerUnit\":10}";
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/wallets/{walletId}/transactions/async", walletId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isAccepted());
+        }
+        mockMvc.perform(post("/api/wallets/{walletId}/transactions/async", walletId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isTooManyRequests());
+
+        // Nada confirmado: nenhum segmento apagado
+        assertEquals(0, transactionRepository.countByWalletId(walletId));
+        assertEquals(segmentsBefore + 3, segments().size());
+
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+        awaitCommitted();
+        assertEquals(3, transactionRepository.countByWalletId(walletId));
+        // Só o segmento aberto fica
+        assertEquals(1, segments().size());
+    }
+
+    private IngestionStatus awaitCommitted() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        IngestionStatus status = ingestionService.getStatus();
+        while (status.lag() > 0 || status.queued() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Ingestão não gravou a fila: " + status);
+            Thread.sleep(20);
+            status = ingestionService.getStatus();
+        }
+        return status;
+    }
+
+    private static List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(JOURNAL_DIR)) {
+            return files.toList();
+        }
+    }
+
+    private static Transaction buy(String quantity) {
+        Transaction transaction = new Transaction();
+        transaction.setCryptocurrency("BTC");
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(new BigDecimal(quantity));
+        transaction.setPricePerUnit(new BigDecimal("100"));
+        transaction.setTransactionDate(LocalDateTime.of(2024, 1, 1, 10, 0));
+        return transaction;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}